@@ -0,0 +1,90 @@
+package org.example.cache;
+
+// Member: Arun - Shop & Menu Management
+// Conditional GET support for the catalog endpoints (restaurant list and menus, customer shop
+// and food lists). ETags are built from the MenuCache version counters, so a request whose
+// If-None-Match still matches is answered 304 before any service or repository is called.
+// The node's start time is part of every ETag because the counters restart at zero. Order counts
+// and ratings in the bodies do not bump the counters, so ETags also roll over every refresh window.
+// Related database tables: shop and food tables
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+@Component
+public class CatalogHttpCache {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final CacheControl cacheControl;
+    private final long refreshWindowMillis;
+
+    @Autowired
+    private MenuCache menuCache;
+
+    // shared=true lets a CDN store the responses (s-maxage). Catalog bodies are the same for every
+    // user, but a shared cache will then serve them without checking the caller's login
+    public CatalogHttpCache(@Value("${app.http-cache.max-age-seconds:30}") long maxAgeSeconds,
+                            @Value("${app.http-cache.shared:false}") boolean shared,
+                            @Value("${app.http-cache.shared-max-age-seconds:300}") long sharedMaxAgeSeconds,
+                            @Value("${app.http-cache.refresh-window-seconds:600}") long refreshWindowSeconds) {
+        this.refreshWindowMillis = Math.max(1, refreshWindowSeconds) * 1000;
+        CacheControl control = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).mustRevalidate();
+        this.cacheControl = shared
+                ? control.cachePublic().sMaxAge(Duration.ofSeconds(sharedMaxAgeSeconds))
+                : control.cachePrivate();
+    }
+
+    // One shop's menu or details
+    public String shopETag(String resource, Long shopId) {
+        return "\"" + resource + "-" + epoch + "-" + window() + "-" + shopId + "-" + menuCache.shopVersion(shopId) + "\"";
+    }
+
+    // Catalog-wide lists
+    public String catalogETag(String resource) {
+        return "\"" + resource + "-" + epoch + "-" + window() + "-" + menuCache.catalogVersion() + "\"";
+    }
+
+    // Take the ETag before calling this: the version must be read before the body is loaded,
+    // otherwise an old body could be labelled with a newer version.
+    // Vary: Accept because the same URL can also be served as CBOR/Smile (see WebMvcConfig)
+    public <T> ResponseEntity<T> respond(WebRequest request, String etag, Supplier<T> body) {
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).body(body.get());
+    }
+
+    private String window() {
+        return Long.toString(System.currentTimeMillis() / refreshWindowMillis, 36);
+    }
+
+    // If-None-Match uses weak comparison, so W/ prefixes added by proxies (e.g. after compression) still match
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
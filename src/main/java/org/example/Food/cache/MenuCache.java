@@ -0,0 +1,108 @@
+package org.example.cache;
+
+// Member: Arun - Shop & Menu Management
+// Read-through cache for per-shop menus and the global available-food list.
+// Invalidated by FoodService / ShopService after their transaction commits.
+// Also keeps the menu/catalog version counters that the HTTP ETags are derived from (see CatalogHttpCache).
+// Related database tables: shop and food tables
+
+import org.example.model.Food;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class MenuCache {
+
+    private static final String ALL_AVAILABLE = "all";
+
+    private final BoundedTtlCache<Long, List<Food>> shopMenus;
+    private final BoundedTtlCache<String, List<Food>> availableFoods;
+
+    // Bumped after every committed change to a shop's menu or listing; entries are never removed
+    // so a deleted and re-read shop cannot reuse an old version
+    private final Map<Long, AtomicLong> shopVersions = new ConcurrentHashMap<>();
+    // Bumped after any change visible in the catalog-wide lists (all foods, all shops)
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    public MenuCache(@Value("${app.menu-cache.max-shops:1000}") int maxShops,
+                     @Value("${app.menu-cache.ttl-seconds:300}") long ttlSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.shopMenus = new BoundedTtlCache<>(maxShops, ttl);
+        this.availableFoods = new BoundedTtlCache<>(1, ttl);
+    }
+
+    public List<Food> getShopMenu(Long shopId, Supplier<List<Food>> loader) {
+        return shopMenus.get(shopId, () -> List.copyOf(loader.get()));
+    }
+
+    public List<Food> getAvailableFoods(Supplier<List<Food>> loader) {
+        return availableFoods.get(ALL_AVAILABLE, () -> List.copyOf(loader.get()));
+    }
+
+    // Drops the shop's menu and the global list once the current transaction commits
+    public void invalidateShop(Long shopId) {
+        afterCommit(() -> {
+            shopMenus.invalidate(shopId);
+            availableFoods.invalidateAll();
+            bumpVersions(shopId);
+        });
+    }
+
+    // Shop profile or rating changed: cached menus stay valid, but shop listings must be re-sent
+    public void shopDetailsChanged(Long shopId) {
+        afterCommit(() -> bumpVersions(shopId));
+    }
+
+    public void invalidateAll() {
+        afterCommit(() -> {
+            shopMenus.invalidateAll();
+            availableFoods.invalidateAll();
+            shopVersions.values().forEach(AtomicLong::incrementAndGet);
+            catalogVersion.incrementAndGet();
+        });
+    }
+
+    public long shopVersion(Long shopId) {
+        AtomicLong version = shopVersions.get(shopId);
+        return version != null ? version.get() : 0L;
+    }
+
+    public long catalogVersion() {
+        return catalogVersion.get();
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+            "shopMenus", shopMenus.stats(),
+            "availableFoods", availableFoods.stats(),
+            "catalogVersion", catalogVersion.get()
+        );
+    }
+
+    private void bumpVersions(Long shopId) {
+        shopVersions.computeIfAbsent(shopId, id -> new AtomicLong()).incrementAndGet();
+        catalogVersion.incrementAndGet();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package org.example.config;
 
 // Jackson JSON Configuration - All Team Members
-// Configures JSON serialization for all API endpoints
+// Configures JSON serialization for all API endpoints. This is the only ObjectMapper in the
+// application: the MVC message converter (see WebMvcConfig) and code that writes JSON itself
+// (e.g. the admin order export) inject this bean. Output is compact; pretty printing is
+// only applied per request through the debug parameter handled by JsonMessageConverter.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -20,11 +24,14 @@ public class JacksonConfig {
         
         // Register JavaTime module to handle LocalDateTime and other Java 8 time types
         mapper.registerModule(new JavaTimeModule());
+        // Generated property accessors (LambdaMetafactory) instead of reflection
+        mapper.registerModule(new BlackbirdModule());
         
         // Configure Jackson to handle serialization
         mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
         mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
         mapper.configure(SerializationFeature.FAIL_ON_SELF_REFERENCES, false);
+        mapper.configure(SerializationFeature.INDENT_OUTPUT, false);
         
         return mapper;
     }
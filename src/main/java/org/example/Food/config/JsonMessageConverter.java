@@ -0,0 +1,48 @@
+package org.example.config;
+
+// JSON message converter - All Team Members
+// Writes compact JSON with the shared ObjectMapper. Adding the debug parameter to a request
+// (?pretty=true by default, see app.json.pretty-param) indents that one response; leave the
+// property blank to disable it.
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+public class JsonMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final String prettyParam;
+
+    public JsonMessageConverter(ObjectMapper objectMapper, String prettyParam) {
+        super(objectMapper);
+        this.prettyParam = prettyParam;
+    }
+
+    @Override
+    @NonNull
+    protected ObjectWriter customizeWriter(@NonNull ObjectWriter writer, @Nullable MimeType mimeType, @NonNull JavaType javaType) {
+        ObjectWriter customized = super.customizeWriter(writer, mimeType, javaType);
+        return prettyPrintRequested() ? customized.withDefaultPrettyPrinter() : customized;
+    }
+
+    private boolean prettyPrintRequested() {
+        if (prettyParam == null || prettyParam.isBlank()) {
+            return false;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return false;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        String value = request.getParameter(prettyParam);
+        return value != null && (value.isEmpty() || Boolean.parseBoolean(value));
+    }
+}
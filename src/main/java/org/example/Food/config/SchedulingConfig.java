@@ -0,0 +1,12 @@
+package org.example.config;
+
+// Scheduling Configuration - All Team Members
+// Enables @Scheduled background jobs (counter flushes and other periodic tasks)
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
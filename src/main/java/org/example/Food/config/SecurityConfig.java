@@ -6,19 +6,33 @@ package org.example.config;
 // Member: Arun (Shop security and access control)
 // Member: Piranavan (Order security)
 // Member: Asmal (Admin security)
+// app.auth.mode=session keeps the HttpSession based login; app.auth.mode=stateless issues a
+// signed token at /perform_login and authorizes requests from it without a session
 
+import org.example.model.User;
+import org.example.security.AuthTokenFilter;
+import org.example.security.AuthTokenService;
+import org.example.security.AuthenticatedUser;
+import org.example.security.AuthenticatedUserCache;
+import org.example.security.HashingPasswordEncoder;
+import org.example.security.PasswordCheckBusyException;
 import org.example.service.UserService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,23 +41,30 @@ import org.slf4j.LoggerFactory;
 public class SecurityConfig {
     private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public UserDetailsService userDetailsService(UserService userService) {
         return username -> userService.findByEmail(username)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + username));
     }
 
+    // The PasswordEncoder bean is HashingPasswordEncoder (algorithm and cost from app.password.*).
+    // Hashes made with older settings are replaced with a fresh hash after a successful login.
     @Bean
     public DaoAuthenticationProvider daoAuthenticationProvider(UserDetailsService userDetailsService,
-        org.springframework.security.crypto.password.PasswordEncoder passwordEncoder) {
+        PasswordEncoder passwordEncoder, UserService userService) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService((user, newEncodedPassword) -> {
+            userService.updatePasswordHash(user.getUsername(), newEncodedPassword);
+            if (passwordEncoder instanceof HashingPasswordEncoder hashing) {
+                hashing.recordUpgrade();
+            }
+            if (user instanceof User entity) {
+                entity.setPassword(newEncodedPassword);
+            }
+            return user;
+        });
         return provider;
     }
 
@@ -54,7 +75,10 @@ public class SecurityConfig {
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http,
-                                           DaoAuthenticationProvider daoAuthenticationProvider) throws Exception {
+                                           DaoAuthenticationProvider daoAuthenticationProvider,
+                                           AuthenticatedUserCache authenticatedUserCache,
+                                           AuthTokenService authTokenService) throws Exception {
+        boolean stateless = authTokenService.isStateless();
         http
             .authenticationProvider(daoAuthenticationProvider)
             .authorizeHttpRequests(authz -> authz
@@ -86,9 +110,33 @@ public class SecurityConfig {
             .formLogin(form -> form
                 .loginPage("/login")
                 .loginProcessingUrl("/perform_login")
-                .successHandler((request, response, authentication) ->
-                        response.sendRedirect("/dashboard"))
+                .successHandler((request, response, authentication) -> {
+                        // The login already loaded the user, so seed the principal cache with it
+                        if (authentication.getPrincipal() instanceof User user) {
+                            authenticatedUserCache.remember(user);
+                            if (stateless) {
+                                String token = authTokenService.issue(AuthenticatedUser.from(user));
+                                ResponseCookie cookie = ResponseCookie.from(AuthTokenFilter.COOKIE_NAME, token)
+                                        .httpOnly(true)
+                                        .secure(request.isSecure())
+                                        .sameSite("Lax")
+                                        .path("/")
+                                        .maxAge(authTokenService.getTtl())
+                                        .build();
+                                response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+                                response.setHeader("X-Auth-Token", token);
+                            }
+                        }
+                        response.sendRedirect("/dashboard");
+                    })
                 .failureHandler((request, response, exception) -> {
+                        if (exception instanceof PasswordCheckBusyException) {
+                            // Overloaded, not a wrong password: ask the client to retry shortly
+                            log.warn("Login rejected, password checks saturated: {}", exception.getMessage());
+                            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), exception.getMessage());
+                            return;
+                        }
                         String attempted = request.getParameter("username");
                         log.warn("Login failed for {}: {}", attempted, exception.getMessage());
                         response.sendRedirect("/login?error=true");
@@ -99,16 +147,25 @@ public class SecurityConfig {
                 .logoutUrl("/logout")
                 .logoutSuccessUrl("/login?logout=true")
                 .invalidateHttpSession(true)
-                .deleteCookies("JSESSIONID")
+                .deleteCookies("JSESSIONID", AuthTokenFilter.COOKIE_NAME)
                 .permitAll()
             )
-            .sessionManagement(session -> session
-                .maximumSessions(1)
-                .maxSessionsPreventsLogin(false)
-            )
             .csrf(csrf -> csrf.disable()) // disable CSRF for APIs
             .headers(headers -> headers.frameOptions(frame -> frame.disable())); // allow H2 console frames
 
+        if (stateless) {
+            // No session is created or read; the token filter rebuilds the security context per request
+            http
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .securityContext(context -> context.securityContextRepository(new RequestAttributeSecurityContextRepository()))
+                .addFilterBefore(new AuthTokenFilter(authTokenService, authenticatedUserCache), UsernamePasswordAuthenticationFilter.class);
+        } else {
+            http.sessionManagement(session -> session
+                .maximumSessions(1)
+                .maxSessionsPreventsLogin(false)
+            );
+        }
+
         return http.build();
     }
 }
@@ -1,12 +1,22 @@
 package org.example.config;
 
 // Configuration for Web MVC - All Team Members
-// Handles view controller mappings and JSON pretty printing
+// Handles view controller mappings, the JSON (and optional CBOR/Smile) message converters and the
+// AuthenticatedUser argument resolver
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.example.security.AuthenticatedUserArgumentResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.lang.NonNull;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -15,6 +25,20 @@ import java.util.List;
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
     
+    @Autowired
+    private AuthenticatedUserArgumentResolver authenticatedUserArgumentResolver;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.json.pretty-param:pretty}")
+    private String prettyParam;
+    
+    // Binary encodings offered when a client asks for them in Accept (application/cbor,
+    // application/x-jackson-smile), e.g. for the large admin dashboard lists
+    @Value("${app.http.binary-formats:cbor,smile}")
+    private String[] binaryFormats;
+    
     @Override
     public void addViewControllers(@NonNull ViewControllerRegistry registry) {
         registry.addViewController("/").setViewName("index");
@@ -25,9 +49,42 @@ public class WebMvcConfig implements WebMvcConfigurer {
     }
     
     @Override
-    public void configureMessageConverters(@NonNull List<HttpMessageConverter<?>> converters) {
-        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
-        converter.setPrettyPrint(true);
-        converters.add(converter);
+    public void addArgumentResolvers(@NonNull List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(authenticatedUserArgumentResolver);
+    }
+    
+    // Swaps the default Jackson converter for one bound to the shared ObjectMapper that writes compact
+    // JSON (pretty printing only on request), keeping the other default converters in place
+    @Override
+    public void extendMessageConverters(@NonNull List<HttpMessageConverter<?>> converters) {
+        JsonMessageConverter jsonConverter = new JsonMessageConverter(objectMapper, prettyParam);
+        boolean replaced = false;
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                converters.set(i, jsonConverter);
+                replaced = true;
+                break;
+            }
+        }
+        if (!replaced) {
+            converters.add(jsonConverter);
+        }
+        converters.removeIf(converter -> converter instanceof MappingJackson2HttpMessageConverter && converter != jsonConverter);
+        
+        // Spring registers its own CBOR/Smile converters for the dataformat modules; replace them with
+        // ones sharing our ObjectMapper configuration. They come after JSON, so JSON stays the default
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        for (String format : binaryFormats) {
+            String name = format.trim().toLowerCase();
+            if (name.isEmpty()) {
+                continue;
+            }
+            switch (name) {
+                case "cbor" -> converters.add(new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())));
+                case "smile" -> converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())));
+                default -> throw new IllegalStateException("Unknown app.http.binary-formats entry: " + format);
+            }
+        }
     }
 }
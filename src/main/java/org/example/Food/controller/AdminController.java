@@ -3,16 +3,27 @@ package org.example.controller;
 // Member: Asmal - Admin management
 // Related database tables: admin & activity log tables
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.cache.MenuCache;
 import org.example.dto.ActivityLogDTO;
+import org.example.dto.CursorPageDTO;
 import org.example.dto.OrderDTO;
 import org.example.dto.ShopDTO;
 import org.example.dto.UserDTO;
 import org.example.model.*;
+import org.example.push.CustomerOrderTracker;
+import org.example.push.ShopOrderBoard;
+import org.example.search.CatalogSearchIndex;
+import org.example.security.HashingPasswordEncoder;
 import org.example.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -33,6 +44,31 @@ public class AdminController {
     @Autowired
     private ActivityLogService activityLogService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MenuCache menuCache;
+    
+    @Autowired
+    private ShopOrderBoard shopOrderBoard;
+    
+    @Autowired
+    private CustomerOrderTracker customerOrderTracker;
+    
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+    
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+    
+    @Autowired
+    private HashingPasswordEncoder hashingPasswordEncoder;
+    
+    private static final int DEFAULT_ORDER_PAGE_SIZE = 50;
+    private static final int MAX_ORDER_PAGE_SIZE = 500;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
     // Dashboard statistics
     @GetMapping("/dashboard/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
@@ -49,6 +85,51 @@ public class AdminController {
         ));
     }
     
+    // Menu cache hit/miss/eviction counters
+    @GetMapping("/cache/menu")
+    public ResponseEntity<Map<String, Object>> getMenuCacheStats() {
+        return ResponseEntity.ok(menuCache.stats());
+    }
+    
+    // Live order push: open connections, messages sent and dropped
+    @GetMapping("/push/order-board")
+    public ResponseEntity<Map<String, Object>> getOrderBoardStats() {
+        return ResponseEntity.ok(shopOrderBoard.stats());
+    }
+    
+    @GetMapping("/push/order-tracking")
+    public ResponseEntity<Map<String, Object>> getOrderTrackingStats() {
+        return ResponseEntity.ok(customerOrderTracker.stats());
+    }
+    
+    // Password hashing timings and executor saturation
+    @GetMapping("/security/password-hashing")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStats() {
+        return ResponseEntity.ok(hashingPasswordEncoder.stats());
+    }
+    
+    // Food/shop search index size
+    @GetMapping("/search/index")
+    public ResponseEntity<Map<String, Object>> getSearchIndexStats() {
+        return ResponseEntity.ok(catalogSearchIndex.stats());
+    }
+    
+    // Rebuild the search index from the database; 409 while another rebuild is running
+    @PostMapping("/search/index/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        if (!catalogSearchIndex.tryRebuild()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(catalogSearchIndex.stats());
+        }
+        return ResponseEntity.ok(catalogSearchIndex.stats());
+    }
+    
+    // Rebuild the shop_daily_revenue rollup from the orders table
+    @PostMapping("/analytics/revenue-rollup/backfill")
+    public ResponseEntity<Map<String, Object>> backfillRevenueRollup() {
+        int rows = revenueRollupService.backfill();
+        return ResponseEntity.ok(Map.of("rows", rows));
+    }
+    
     // Shop management
     @GetMapping("/shops")
     public ResponseEntity<List<ShopDTO>> getAllShops() {
@@ -107,6 +188,11 @@ public class AdminController {
         return ResponseEntity.ok(activityLogDTOs);
     }
     
+    @GetMapping("/activity-logs/pipeline")
+    public ResponseEntity<Map<String, Object>> getActivityLogPipelineStats() {
+        return ResponseEntity.ok(activityLogService.getPipelineStats());
+    }
+    
     @GetMapping("/activity-logs/user/{userId}")
     public ResponseEntity<List<ActivityLogDTO>> getActivityLogsByUser(@PathVariable Long userId) {
         User user = userService.findById(userId);
@@ -120,11 +206,40 @@ public class AdminController {
     // Orders management
     @GetMapping("/orders")
     public ResponseEntity<List<OrderDTO>> getAllOrders() {
-        List<Order> orders = orderService.getAllOrders();
-        List<OrderDTO> orderDTOs = orders.stream()
-                .map(this::convertToOrderDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(orderDTOs);
+        return ResponseEntity.ok(orderService.getAllOrderDTOs());
+    }
+    
+    // Keyset-paginated orders, newest first (cursor on created_at, id)
+    @GetMapping("/orders/page")
+    public ResponseEntity<CursorPageDTO<OrderDTO>> getOrderPage(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                @RequestParam(value = "size", defaultValue = "50") int size) {
+        int pageSize = size > 0 ? Math.min(size, MAX_ORDER_PAGE_SIZE) : DEFAULT_ORDER_PAGE_SIZE;
+        try {
+            return ResponseEntity.ok(orderService.getOrderPage(cursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Export every order as newline-delimited JSON, streamed page by page
+    @GetMapping(value = "/orders/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        StreamingResponseBody body = (OutputStream out) -> {
+            String cursor = null;
+            do {
+                CursorPageDTO<OrderDTO> page = orderService.getOrderPage(cursor, MAX_ORDER_PAGE_SIZE);
+                for (OrderDTO order : page.getItems()) {
+                    out.write(objectMapper.writeValueAsBytes(order));
+                    out.write('\n');
+                }
+                out.flush();
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+        };
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header("Content-Disposition", "attachment; filename=\"orders.ndjson\"")
+                .body(body);
     }
     
     @GetMapping("/orders/{orderId}")
@@ -4,11 +4,12 @@ package org.example.controller;
 // Related database tables: user & customer tables
 
 import org.example.model.*;
+import org.example.security.AuthenticatedUser;
+import org.example.security.AuthenticatedUserCache;
 import org.example.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -27,6 +28,9 @@ public class AuthController {
     @Autowired
     private CustomerService customerService;
     
+    @Autowired
+    private AuthenticatedUserCache authenticatedUserCache;
+    
     // Register shop
     @PostMapping("/register/shop")
     public ResponseEntity<?> registerShop(@RequestBody Shop shop) {
@@ -55,17 +59,26 @@ public class AuthController {
     
     // Get current user info
     @GetMapping("/me")
-    public ResponseEntity<Map<String, Object>> getCurrentUser(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Map<String, Object>> getCurrentUser(AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // Stateless tokens do not carry the display name; the cache loads it from the database on a miss
+        if (user.getName() == null) {
+            AuthenticatedUser cached = authenticatedUserCache.get(user.getEmail());
+            if (cached != null) {
+                user = cached;
+            }
+        }
         
-        return ResponseEntity.ok(Map.of(
-            "id", user.getId(),
-            "email", user.getEmail(),
-            "name", user.getName(),
-            "role", user.getRole(),
-            "isActive", user.getIsActive()
-        ));
+        // The name can still be null (account removed since the token was issued), which Map.of rejects
+        Map<String, Object> body = new HashMap<>();
+        body.put("id", user.getId());
+        body.put("email", user.getEmail());
+        body.put("name", user.getName());
+        body.put("role", user.getRole());
+        body.put("isActive", user.isActive());
+        return ResponseEntity.ok(body);
     }
     
     // Check if email exists
@@ -4,21 +4,38 @@ package org.example.controller;
 // Member: Piranavan - Order management (checkout and order viewing endpoints)
 // Related database tables: user & customer tables, orders and order item tables
 
+import org.example.cache.CatalogHttpCache;
+import org.example.dto.CursorPageDTO;
+import org.example.dto.FoodDTO;
+import org.example.dto.FoodQueryResultDTO;
+import org.example.dto.OrderSummaryDTO;
+import org.example.dto.OrderWithItemsDTO;
+import org.example.dto.ShopSummaryDTO;
 import org.example.model.*;
+import org.example.push.CustomerOrderTracker;
+import org.example.search.FoodFacetIndex;
+import org.example.security.AuthenticatedUser;
 import org.example.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/customer")
 public class CustomerController {
     
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    
     @Autowired
     private CustomerService customerService;
     
@@ -34,33 +51,35 @@ public class CustomerController {
     @Autowired
     private ActivityLogService activityLogService;
     
+    @Autowired
+    private CheckoutService checkoutService;
+    
+    @Autowired
+    private CatalogHttpCache catalogHttpCache;
+    
+    @Autowired
+    private CustomerOrderTracker customerOrderTracker;
+    
     // Get current customer info
     @GetMapping("/profile")
-    public ResponseEntity<Customer> getCustomerProfile(Authentication authentication) {
-        String email = authentication.getName();
-        Customer customer = customerService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Customer> getCustomerProfile(AuthenticatedUser principal) {
+        Customer customer = customerService.findById(principal.getId());
         return ResponseEntity.ok(customer);
     }
     
     // Update customer profile
     @PutMapping("/profile")
-    public ResponseEntity<Customer> updateCustomerProfile(@RequestBody Customer customer, Authentication authentication) {
-        String email = authentication.getName();
-        Customer currentCustomer = customerService.findByEmail(email).orElseThrow();
-        customer.setId(currentCustomer.getId());
+    public ResponseEntity<Customer> updateCustomerProfile(@RequestBody Customer customer, AuthenticatedUser principal) {
+        customer.setId(principal.getId());
         Customer updatedCustomer = customerService.updateCustomer(customer);
         return ResponseEntity.ok(updatedCustomer);
     }
     
     // Delete customer account
     @DeleteMapping("/profile")
-    public ResponseEntity<Map<String, String>> deleteCustomerProfile(Authentication authentication) {
+    public ResponseEntity<Map<String, String>> deleteCustomerProfile(AuthenticatedUser principal) {
         try {
-            String email = authentication.getName();
-            Customer currentCustomer = customerService.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("Customer not found"));
-            
-            customerService.deleteCustomer(currentCustomer.getId());
+            customerService.deleteCustomer(principal.getId());
             
             return ResponseEntity.ok(Map.of("message", "Account deleted successfully"));
         } catch (Exception e) {
@@ -73,9 +92,8 @@ public class CustomerController {
     
     // Dashboard statistics
     @GetMapping("/dashboard/stats")
-    public ResponseEntity<Map<String, Object>> getDashboardStats(Authentication authentication) {
-        String email = authentication.getName();
-        Customer customer = customerService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Map<String, Object>> getDashboardStats(AuthenticatedUser principal) {
+        Customer customer = customerService.findById(principal.getId());
         
         long totalOrders = orderService.countOrdersByCustomer(customer);
         List<Order> recentOrders = orderService.getOrdersByCustomer(customer);
@@ -89,100 +107,140 @@ public class CustomerController {
     
     // Browse shops
     @GetMapping("/shops")
-    public ResponseEntity<List<Shop>> getApprovedShops() {
-        return ResponseEntity.ok(shopService.getApprovedShops());
+    public ResponseEntity<List<ShopSummaryDTO>> getApprovedShops(WebRequest request) {
+        return catalogHttpCache.respond(request, catalogHttpCache.catalogETag("shops"),
+                () -> shopService.getApprovedShops().stream().map(ShopSummaryDTO::from).toList());
     }
     
     @GetMapping("/shops/search")
-    public ResponseEntity<List<Shop>> searchShops(@RequestParam String name) {
-        return ResponseEntity.ok(shopService.searchShopsByName(name));
+    public ResponseEntity<List<ShopSummaryDTO>> searchShops(@RequestParam String name) {
+        return ResponseEntity.ok(shopService.searchShopsByName(name).stream().map(ShopSummaryDTO::from).toList());
     }
     
     @GetMapping("/shops/city/{city}")
-    public ResponseEntity<List<Shop>> getShopsByCity(@PathVariable String city) {
-        return ResponseEntity.ok(shopService.getShopsByCity(city));
+    public ResponseEntity<List<ShopSummaryDTO>> getShopsByCity(@PathVariable String city) {
+        return ResponseEntity.ok(shopService.getShopsByCity(city).stream().map(ShopSummaryDTO::from).toList());
     }
     
     // Browse foods
     @GetMapping("/foods")
-    public ResponseEntity<List<Food>> getAllAvailableFoods() {
-        return ResponseEntity.ok(foodService.getAllAvailableFoods());
+    public ResponseEntity<List<FoodDTO>> getAllAvailableFoods(WebRequest request) {
+        return catalogHttpCache.respond(request, catalogHttpCache.catalogETag("foods"),
+                () -> toFoodDTOs(foodService.getAllAvailableFoods()));
     }
     
     @GetMapping("/foods/shop/{shopId}")
-    public ResponseEntity<List<Food>> getFoodsByShop(@PathVariable Long shopId) {
-        Shop shop = shopService.findById(shopId);
-        return ResponseEntity.ok(foodService.getAvailableFoodsByShop(shop));
+    public ResponseEntity<List<FoodDTO>> getFoodsByShop(@PathVariable Long shopId) {
+        return ResponseEntity.ok(toFoodDTOs(foodService.getAvailableFoodsByShopId(shopId)));
     }
     
     @GetMapping("/foods/category/{category}")
-    public ResponseEntity<List<Food>> getFoodsByCategory(@PathVariable String category) {
-        return ResponseEntity.ok(foodService.getFoodsByCategory(category));
+    public ResponseEntity<List<FoodDTO>> getFoodsByCategory(@PathVariable String category) {
+        return ResponseEntity.ok(toFoodDTOs(foodService.getFoodsByCategory(category)));
     }
     
     @GetMapping("/foods/search")
-    public ResponseEntity<List<Food>> searchFoods(@RequestParam String name) {
-        return ResponseEntity.ok(foodService.searchFoodsByName(name));
+    public ResponseEntity<List<FoodDTO>> searchFoods(@RequestParam String name) {
+        return ResponseEntity.ok(toFoodDTOs(foodService.searchFoodsByName(name)));
     }
     
+    // Combined filters (category, price, city, availability, rating, text) with facet counts in one call.
+    // category may be repeated (any of), available=all includes unavailable foods
+    @GetMapping("/foods/query")
+    public ResponseEntity<FoodQueryResultDTO> queryFoods(
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "category", required = false) List<String> categories,
+            @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+            @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+            @RequestParam(value = "city", required = false) String city,
+            @RequestParam(value = "available", defaultValue = "true") String available,
+            @RequestParam(value = "minRating", required = false) BigDecimal minRating,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        FoodFacetIndex.Sort order;
+        try {
+            order = sort != null
+                    ? FoodFacetIndex.Sort.valueOf(sort.toUpperCase())
+                    : (q != null && !q.isBlank() ? FoodFacetIndex.Sort.RELEVANCE : FoodFacetIndex.Sort.RATING);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+        FoodFacetIndex.Query query = new FoodFacetIndex.Query()
+                .categories(categories)
+                .priceRange(minPrice, maxPrice)
+                .city(city)
+                .available("all".equalsIgnoreCase(available) ? null : Boolean.valueOf(available))
+                .minRating(minRating)
+                .sort(order);
+        try {
+            return ResponseEntity.ok(foodService.queryCatalog(q, query, Math.max(page, 0), Math.max(1, Math.min(size, 100))));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
+    // Sorted by price (sort=asc|desc) and paginated; the total is returned in X-Total-Count
     @GetMapping("/foods/price-range")
-    public ResponseEntity<List<Food>> getFoodsByPriceRange(@RequestParam Double minPrice, @RequestParam Double maxPrice) {
-        return ResponseEntity.ok(foodService.getFoodsByPriceRange(minPrice, maxPrice));
+    public ResponseEntity<List<FoodDTO>> getFoodsByPriceRange(@RequestParam BigDecimal minPrice,
+                                                           @RequestParam BigDecimal maxPrice,
+                                                           @RequestParam(value = "sort", defaultValue = "asc") String sort,
+                                                           @RequestParam(value = "page", defaultValue = "0") int page,
+                                                           @RequestParam(value = "size", defaultValue = "100") int size) {
+        if (minPrice.compareTo(maxPrice) > 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        Page<Food> foods = foodService.getFoodsByPriceRange(minPrice, maxPrice,
+                "desc".equalsIgnoreCase(sort), Math.max(page, 0), Math.max(1, Math.min(size, 500)));
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(foods.getTotalElements()))
+                .body(toFoodDTOs(foods.getContent()));
     }
     
     @GetMapping("/foods/{foodId}")
-    public ResponseEntity<Food> getFoodById(@PathVariable Long foodId) {
+    public ResponseEntity<FoodDTO> getFoodById(@PathVariable Long foodId) {
         Food food = foodService.findById(foodId);
-        return ResponseEntity.ok(food);
+        return ResponseEntity.ok(FoodDTO.from(food));
     }
     
     // Order management
     @GetMapping("/orders")
-    public ResponseEntity<List<org.example.dto.OrderSummaryDTO>> getCustomerOrders(Authentication authentication) {
-        String email = authentication.getName();
-        Customer customer = customerService.findByEmail(email).orElseThrow();
-        List<Order> orders = orderService.getOrdersByCustomer(customer);
-        List<org.example.dto.OrderSummaryDTO> dto = orders.stream().map(o -> new org.example.dto.OrderSummaryDTO(
-                o.getId(),
-                o.getOrderNumber(),
-                o.getShop() != null ? o.getShop().getShopName() : "",
-                o.getTotalAmount(),
-                o.getStatus().name(),
-                o.getPaymentStatus().name(),
-                o.getCreatedAt(),
-                o.getOrderItems() != null ? o.getOrderItems().size() : 0
-        )).toList();
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<List<OrderSummaryDTO>> getCustomerOrders(AuthenticatedUser principal) {
+        return ResponseEntity.ok(orderService.getCustomerOrderSummaries(principal.getId(), 0));
+    }
+    
+    // Order history page, newest first (cursor on created_at, id); pass nextCursor to load more
+    @GetMapping("/orders/history")
+    public ResponseEntity<CursorPageDTO<OrderSummaryDTO>> getOrderHistory(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            AuthenticatedUser principal) {
+        int pageSize = size > 0 ? Math.min(size, MAX_HISTORY_PAGE_SIZE) : DEFAULT_HISTORY_PAGE_SIZE;
+        try {
+            return ResponseEntity.ok(orderService.getCustomerOrderHistory(principal.getId(), cursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Recent orders (summary)
     @GetMapping("/orders/recent")
-    public ResponseEntity<List<org.example.dto.OrderSummaryDTO>> getRecentCustomerOrders(Authentication authentication) {
-        String email = authentication.getName();
-        Customer customer = customerService.findByEmail(email).orElseThrow();
-        List<Order> orders = orderService.getOrdersByCustomer(customer);
-        List<org.example.dto.OrderSummaryDTO> dto = orders.stream()
-                .limit(10)
-                .map(o -> new org.example.dto.OrderSummaryDTO(
-                        o.getId(),
-                        o.getOrderNumber(),
-                        o.getShop() != null ? o.getShop().getShopName() : "",
-                        o.getTotalAmount(),
-                        o.getStatus().name(),
-                        o.getPaymentStatus().name(),
-                        o.getCreatedAt(),
-                        o.getOrderItems() != null ? o.getOrderItems().size() : 0
-                )).toList();
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<List<OrderSummaryDTO>> getRecentCustomerOrders(AuthenticatedUser principal) {
+        return ResponseEntity.ok(orderService.getCustomerOrderSummaries(principal.getId(), 10));
+    }
+    
+    // Order tracking stream (server-sent events): a "snapshot" of recent orders on every (re)connect,
+    // then coalesced "orders" updates with status and delivery times
+    @GetMapping(value = "/orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter trackOrders(AuthenticatedUser principal) {
+        return customerOrderTracker.subscribe(principal.getId());
     }
     
     @GetMapping("/orders/{orderId}")
-    public ResponseEntity<Order> getOrder(@PathVariable Long orderId, Authentication authentication) {
-        String email = authentication.getName();
-        Customer customer = customerService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Order> getOrder(@PathVariable Long orderId, AuthenticatedUser principal) {
         Order order = orderService.findById(orderId);
         
-        if (!order.getCustomer().getId().equals(customer.getId())) {
+        if (!order.getCustomer().getId().equals(principal.getId())) {
             return ResponseEntity.badRequest().build();
         }
         
@@ -191,103 +249,50 @@ public class CustomerController {
 
     // Order details with items and shop name for modal rendering
     @GetMapping("/orders/{orderId}/details")
-    public ResponseEntity<org.example.dto.OrderWithItemsDTO> getOrderDetails(@PathVariable Long orderId, Authentication authentication) {
-        String email = authentication.getName();
-        Customer customer = customerService.findByEmail(email).orElseThrow();
-        Order order = orderService.findById(orderId);
-        if (!order.getCustomer().getId().equals(customer.getId())) {
-            return ResponseEntity.badRequest().build();
-        }
-        java.util.List<org.example.dto.OrderItemDTO> items = order.getOrderItems().stream().map(oi ->
-                new org.example.dto.OrderItemDTO(
-                        oi.getFood().getId(),
-                        oi.getFood().getName(),
-                        oi.getQuantity(),
-                        oi.getUnitPrice(),
-                        oi.getTotalPrice()
-                )
-        ).toList();
-        org.example.dto.OrderWithItemsDTO dto = new org.example.dto.OrderWithItemsDTO(
-                order.getId(),
-                order.getOrderNumber(),
-                order.getTotalAmount(),
-                order.getStatus().name(),
-                order.getPaymentStatus().name(),
-                order.getCreatedAt(),
-                items
-        );
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<OrderWithItemsDTO> getOrderDetails(@PathVariable Long orderId, AuthenticatedUser principal) {
+        return orderService.getCustomerOrderDetails(orderId, principal.getId())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
     
     @PostMapping("/orders/{orderId}/cancel")
-    public ResponseEntity<Order> cancelOrder(@PathVariable Long orderId, Authentication authentication) {
-        String email = authentication.getName();
-        Customer customer = customerService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Order> cancelOrder(@PathVariable Long orderId, AuthenticatedUser principal) {
         Order order = orderService.findById(orderId);
         
-        if (!order.getCustomer().getId().equals(customer.getId())) {
+        if (!order.getCustomer().getId().equals(principal.getId())) {
             return ResponseEntity.badRequest().build();
         }
         
-        Order cancelledOrder = orderService.cancelOrder(orderId);
-        return ResponseEntity.ok(cancelledOrder);
+        try {
+            return ResponseEntity.ok(orderService.cancelOrder(orderId));
+        } catch (IllegalStateException ex) {
+            // Already delivered or cancelled
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
     
     // Activity logs
     @GetMapping("/activity-logs")
-    public ResponseEntity<List<ActivityLog>> getActivityLogs(Authentication authentication) {
-        String email = authentication.getName();
-        Customer customer = customerService.findByEmail(email).orElseThrow();
+    public ResponseEntity<List<ActivityLog>> getActivityLogs(AuthenticatedUser principal) {
+        Customer customer = customerService.getReference(principal.getId());
         return ResponseEntity.ok(activityLogService.getActivityLogsByUser(customer));
     }
 
     // Checkout: create an order from cart items
     @PostMapping("/orders/checkout")
-    public ResponseEntity<Order> checkout(@RequestBody Map<String, Object> payload, Authentication authentication) {
-        String email = authentication.getName();
-        Customer customer = customerService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Order> checkout(@RequestBody Map<String, Object> payload, AuthenticatedUser principal) {
+        Customer customer = customerService.getReference(principal.getId());
 
         Long shopId = Long.valueOf(String.valueOf(payload.get("shopId")));
-        Shop shop = shopService.findById(shopId);
 
         @SuppressWarnings("unchecked")
         List<Map<String, Object>> items = (List<Map<String, Object>>) payload.get("items");
 
-        // Calculate total and create order
-        final java.math.BigDecimal[] totalHolder = new java.math.BigDecimal[]{java.math.BigDecimal.ZERO};
-        Order order = new Order(customer, shop, java.math.BigDecimal.ZERO);
-
-        List<OrderItem> orderItems = items.stream().map(it -> {
-            Long foodId = Long.valueOf(String.valueOf(it.get("foodId")));
-            Integer quantity = Integer.valueOf(String.valueOf(it.get("quantity")));
-            Food food = foodService.findById(foodId);
-            if (!food.getShop().getId().equals(shop.getId())) {
-                throw new RuntimeException("All items must belong to the same shop");
-            }
-            java.math.BigDecimal unitPrice = food.getPrice();
-            java.math.BigDecimal lineTotal = unitPrice.multiply(java.math.BigDecimal.valueOf(quantity));
-            totalHolder[0] = totalHolder[0].add(lineTotal);
-
-            OrderItem oi = new OrderItem(quantity, unitPrice, order, food);
-            return oi;
-        }).collect(Collectors.toList());
-
-        order.setOrderItems(orderItems);
-        order.setTotalAmount(totalHolder[0]);
-        order.setStatus(OrderStatus.CONFIRMED);
-        order.setPaymentStatus(PaymentStatus.PAID);
-
-        Order saved = orderService.createOrder(order);
-
-        // Persist items
-        saved.getOrderItems().forEach(oi -> oi.setOrder(saved));
-        // Note: OrderItem persistence is cascaded by Order mapping
-
-        // Update counters
-        orderItems.forEach(oi -> {
-            foodService.incrementFoodOrders(oi.getFood().getId());
-        });
-
+        Order saved = checkoutService.checkout(customer, shopId, items);
         return ResponseEntity.ok(saved);
     }
+
+    private static List<FoodDTO> toFoodDTOs(List<Food> foods) {
+        return foods.stream().map(FoodDTO::from).toList();
+    }
 }
@@ -1,10 +1,12 @@
 package org.example.controller;
 
 // Member: Arun - Shop & Menu management (public API for browsing restaurants and menus)
+// Responses carry ETags from CatalogHttpCache; clients that send If-None-Match get 304 without a database read
 // Related database tables: shop and food tables
 
-import org.example.model.Food;
-import org.example.model.Shop;
+import org.example.cache.CatalogHttpCache;
+import org.example.dto.FoodDTO;
+import org.example.dto.ShopSummaryDTO;
 import org.example.service.FoodService;
 import org.example.service.ShopService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +15,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,25 +29,27 @@ public class RestaurantController {
     @Autowired
     private FoodService foodService;
 
+    @Autowired
+    private CatalogHttpCache catalogHttpCache;
+
     // List approved restaurants
     @GetMapping("/restaurants")
-    public ResponseEntity<List<Shop>> getRestaurants() {
-        return ResponseEntity.ok(shopService.getApprovedShops());
+    public ResponseEntity<List<ShopSummaryDTO>> getRestaurants(WebRequest request) {
+        return catalogHttpCache.respond(request, catalogHttpCache.catalogETag("restaurants"),
+                () -> shopService.getApprovedShops().stream().map(ShopSummaryDTO::from).toList());
     }
 
     // Restaurant details
     @GetMapping("/restaurants/{shopId}")
-    public ResponseEntity<Shop> getRestaurant(@PathVariable Long shopId) {
-        Shop shop = shopService.findById(shopId);
-        return ResponseEntity.ok(shop);
+    public ResponseEntity<ShopSummaryDTO> getRestaurant(@PathVariable Long shopId, WebRequest request) {
+        return catalogHttpCache.respond(request, catalogHttpCache.shopETag("restaurant", shopId),
+                () -> ShopSummaryDTO.from(shopService.findById(shopId)));
     }
 
     // Restaurant menu
     @GetMapping("/restaurants/{shopId}/menu")
-    public ResponseEntity<List<Food>> getRestaurantMenu(@PathVariable Long shopId) {
-        Shop shop = shopService.findById(shopId);
-        return ResponseEntity.ok(foodService.getAvailableFoodsByShop(shop));
+    public ResponseEntity<List<FoodDTO>> getRestaurantMenu(@PathVariable Long shopId, WebRequest request) {
+        return catalogHttpCache.respond(request, catalogHttpCache.shopETag("menu", shopId),
+                () -> foodService.getAvailableFoodsByShopId(shopId).stream().map(FoodDTO::from).toList());
     }
 }
-
-
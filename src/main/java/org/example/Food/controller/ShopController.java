@@ -6,15 +6,30 @@ package org.example.controller;
 // - Shop dashboard and statistics
 // Related database tables: shop and food tables
 
+import org.example.dto.BulkOrderStatusRequest;
+import org.example.dto.OrderStatusOutcomeDTO;
+import org.example.dto.OrderWithItemsDTO;
+import org.example.dto.ShopCustomerDTO;
+import org.example.dto.ShopDashboardStatsDTO;
+import org.example.dto.ShopOrderStats;
+import org.example.dto.TopSellingItem;
 import org.example.model.*;
+import org.example.push.ShopOrderBoard;
+import org.example.security.AuthenticatedUser;
 import org.example.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +37,8 @@ import java.util.Map;
 @RequestMapping("/api/shop")
 public class ShopController {
     
+    private static final int MAX_BULK_STATUS_ORDERS = 100;
+    
     @Autowired
     private ShopService shopService;
     
@@ -34,31 +51,35 @@ public class ShopController {
     @Autowired
     private ActivityLogService activityLogService;
     
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+    
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+    
+    @Autowired
+    private ShopOrderBoard shopOrderBoard;
+    
     // Get current shop info
     @GetMapping("/profile")
-    public ResponseEntity<Shop> getShopProfile(Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Shop> getShopProfile(AuthenticatedUser principal) {
+        Shop shop = shopService.findById(principal.getId());
         return ResponseEntity.ok(shop);
     }
     
     // Update shop profile
     @PutMapping("/profile")
-    public ResponseEntity<Shop> updateShopProfile(@RequestBody Shop shop, Authentication authentication) {
-        String email = authentication.getName();
-        Shop currentShop = shopService.findByEmail(email).orElseThrow();
-        shop.setId(currentShop.getId());
+    public ResponseEntity<Shop> updateShopProfile(@RequestBody Shop shop, AuthenticatedUser principal) {
+        shop.setId(principal.getId());
         Shop updatedShop = shopService.updateShop(shop);
         return ResponseEntity.ok(updatedShop);
     }
     
     // Delete shop account
     @DeleteMapping("/profile")
-    public ResponseEntity<Void> deleteShopProfile(Authentication authentication) {
+    public ResponseEntity<Void> deleteShopProfile(AuthenticatedUser principal) {
         try {
-            String email = authentication.getName();
-            Shop currentShop = shopService.findByEmail(email).orElseThrow();
-            shopService.deleteShop(currentShop.getId());
+            shopService.deleteShop(principal.getId());
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             System.err.println("Error deleting shop account: " + e.getMessage());
@@ -69,55 +90,43 @@ public class ShopController {
     
     // Dashboard statistics
     @GetMapping("/dashboard/stats")
-    public ResponseEntity<Map<String, Object>> getDashboardStats(Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
-        
-        long totalOrders = orderService.countOrdersByShop(shop);
-        BigDecimal totalRevenue = orderService.calculateTotalRevenue(shop);
-        List<Order> recentOrders = orderService.getOrdersByShop(shop);
-        List<Food> foods = foodService.getFoodsByShop(shop);
+    public ResponseEntity<Map<String, Object>> getDashboardStats(AuthenticatedUser principal) {
+        Shop shop = shopService.findById(principal.getId());
         
-        // Calculate today's revenue
-        LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime endOfDay = LocalDateTime.now().withHour(23).withMinute(59).withSecond(59);
-        BigDecimal todayRevenue = orderService.calculateTotalRevenueByDateRange(shop, startOfDay, endOfDay);
+        ShopDashboardStatsDTO stats = dashboardStatsService.getShopDashboardStats(shop);
         
         return ResponseEntity.ok(Map.of(
-            "totalOrders", totalOrders,
-            "totalRevenue", totalRevenue,
-            "todayRevenue", todayRevenue,
-            "totalFoods", foods.size(),
-            "averageRating", shop.getRating() != null ? shop.getRating() : BigDecimal.ZERO,
-            "recentOrdersCount", recentOrders.size(),
-            "shopRating", shop.getRating() != null ? shop.getRating() : BigDecimal.ZERO
+            "totalOrders", stats.getTotalOrders(),
+            "totalRevenue", stats.getTotalRevenue(),
+            "todayRevenue", stats.getTodayRevenue(),
+            "totalFoods", stats.getTotalFoods(),
+            "averageRating", stats.getShopRating(),
+            "recentOrdersCount", stats.getTotalOrders(),
+            "shopRating", stats.getShopRating(),
+            "ordersByStatus", stats.getOrdersByStatus()
         ));
     }
     
     // Food management
     @GetMapping("/foods")
-    public ResponseEntity<List<Food>> getShopFoods(Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<List<Food>> getShopFoods(AuthenticatedUser principal) {
+        Shop shop = shopService.getReference(principal.getId());
         return ResponseEntity.ok(foodService.getFoodsByShop(shop));
     }
     
     @PostMapping("/foods")
-    public ResponseEntity<Food> createFood(@RequestBody Food food, Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Food> createFood(@RequestBody Food food, AuthenticatedUser principal) {
+        Shop shop = shopService.getReference(principal.getId());
         food.setShop(shop);
         Food createdFood = foodService.createFood(food);
         return ResponseEntity.ok(createdFood);
     }
     
     @GetMapping("/foods/{foodId}")
-    public ResponseEntity<Food> getFoodById(@PathVariable Long foodId, Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Food> getFoodById(@PathVariable Long foodId, AuthenticatedUser principal) {
         Food food = foodService.findById(foodId);
         
-        if (!food.getShop().getId().equals(shop.getId())) {
+        if (!food.getShop().getId().equals(principal.getId())) {
             return ResponseEntity.badRequest().build();
         }
         
@@ -125,28 +134,24 @@ public class ShopController {
     }
     
     @PutMapping("/foods/{foodId}")
-    public ResponseEntity<Food> updateFood(@PathVariable Long foodId, @RequestBody Food food, Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Food> updateFood(@PathVariable Long foodId, @RequestBody Food food, AuthenticatedUser principal) {
         Food existingFood = foodService.findById(foodId);
         
-        if (!existingFood.getShop().getId().equals(shop.getId())) {
+        if (!existingFood.getShop().getId().equals(principal.getId())) {
             return ResponseEntity.badRequest().build();
         }
         
         food.setId(foodId);
-        food.setShop(shop);
+        food.setShop(shopService.getReference(principal.getId()));
         Food updatedFood = foodService.updateFood(food);
         return ResponseEntity.ok(updatedFood);
     }
     
     @DeleteMapping("/foods/{foodId}")
-    public ResponseEntity<Void> deleteFood(@PathVariable Long foodId, Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Void> deleteFood(@PathVariable Long foodId, AuthenticatedUser principal) {
         Food food = foodService.findById(foodId);
         
-        if (!food.getShop().getId().equals(shop.getId())) {
+        if (!food.getShop().getId().equals(principal.getId())) {
             return ResponseEntity.badRequest().build();
         }
         
@@ -155,12 +160,10 @@ public class ShopController {
     }
     
     @PostMapping("/foods/{foodId}/toggle-availability")
-    public ResponseEntity<Void> toggleFoodAvailability(@PathVariable Long foodId, Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Void> toggleFoodAvailability(@PathVariable Long foodId, AuthenticatedUser principal) {
         Food food = foodService.findById(foodId);
         
-        if (!food.getShop().getId().equals(shop.getId())) {
+        if (!food.getShop().getId().equals(principal.getId())) {
             return ResponseEntity.badRequest().build();
         }
         
@@ -170,9 +173,8 @@ public class ShopController {
     
     // Order management
     @GetMapping("/orders")
-    public ResponseEntity<List<Order>> getShopOrders(Authentication authentication, @RequestParam(value = "status", required = false) OrderStatus status) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<List<Order>> getShopOrders(AuthenticatedUser principal, @RequestParam(value = "status", required = false) OrderStatus status) {
+        Shop shop = shopService.getReference(principal.getId());
         if (status != null) {
             return ResponseEntity.ok(orderService.getOrdersByStatusAndShop(status, shop));
         }
@@ -180,19 +182,16 @@ public class ShopController {
     }
     
     @GetMapping("/orders/status/{status}")
-    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable OrderStatus status, Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable OrderStatus status, AuthenticatedUser principal) {
+        Shop shop = shopService.getReference(principal.getId());
         return ResponseEntity.ok(orderService.getOrdersByStatusAndShop(status, shop));
     }
     
     @PutMapping("/orders/{orderId}/status")
-    public ResponseEntity<Order> updateOrderStatus(@PathVariable Long orderId, @RequestBody Map<String, String> request, Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Order> updateOrderStatus(@PathVariable Long orderId, @RequestBody Map<String, String> request, AuthenticatedUser principal) {
         Order order = orderService.findById(orderId);
         
-        if (!order.getShop().getId().equals(shop.getId())) {
+        if (!order.getShop().getId().equals(principal.getId())) {
             return ResponseEntity.badRequest().build();
         }
         
@@ -206,44 +205,77 @@ public class ShopController {
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.badRequest().build();
         }
-        Order updatedOrder = orderService.updateOrderStatus(orderId, newStatus);
-        return ResponseEntity.ok(updatedOrder);
+        try {
+            return ResponseEntity.ok(orderService.updateOrderStatus(orderId, newStatus));
+        } catch (IllegalStateException ex) {
+            // The workflow does not allow this transition from the order's current status
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    // Bulk status change for the kitchen, e.g. a batch of PREPARING orders to READY_FOR_DELIVERY.
+    // Body: {"orderIds": [...], "status": "..."}; answers with one outcome per order, so the ids must be distinct
+    @PutMapping("/orders/status")
+    public ResponseEntity<Map<String, Object>> updateOrderStatuses(@RequestBody BulkOrderStatusRequest request,
+                                                                   AuthenticatedUser principal) {
+        if (request.orderIds() == null || request.orderIds().isEmpty() || request.orderIds().size() > MAX_BULK_STATUS_ORDERS
+                || request.orderIds().contains(null) || new HashSet<>(request.orderIds()).size() != request.orderIds().size()
+                || request.status() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        OrderStatus newStatus;
+        try {
+            newStatus = OrderStatus.valueOf(request.status().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<OrderStatusOutcomeDTO> outcomes = orderService.updateOrderStatuses(principal.getId(), request.orderIds(), newStatus);
+        long updated = outcomes.stream()
+                .filter(outcome -> outcome.result() == OrderStatusOutcomeDTO.Result.UPDATED)
+                .count();
+        return ResponseEntity.ok(Map.of(
+            "status", newStatus,
+            "updated", updated,
+            "results", outcomes
+        ));
     }
     
     // Revenue reports
     @GetMapping("/revenue")
-    public ResponseEntity<Map<String, Object>> getRevenueReport(Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Map<String, Object>> getRevenueReport(AuthenticatedUser principal) {
+        Shop shop = shopService.getReference(principal.getId());
         
-        BigDecimal totalRevenue = orderService.calculateTotalRevenue(shop);
         LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        BigDecimal monthlyRevenue = orderService.calculateTotalRevenueByDateRange(shop, startOfMonth, LocalDateTime.now());
+        ShopOrderStats revenue = dashboardStatsService.getRevenueStats(shop, startOfMonth, LocalDateTime.now());
         
         return ResponseEntity.ok(Map.of(
-            "totalRevenue", totalRevenue,
-            "monthlyRevenue", monthlyRevenue
+            "totalRevenue", revenue.getTotalRevenue(),
+            "monthlyRevenue", revenue.getRangeRevenue()
         ));
     }
     
+    // Live order board: server-sent events (ORDER_CREATED, STATUS_CHANGED, ORDER_CANCELLED, resync).
+    // EventSource sends Last-Event-ID on reconnect, and the events missed meanwhile are replayed
+    @GetMapping(value = "/orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders(AuthenticatedUser principal,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return shopOrderBoard.subscribe(principal.getId(), lastEventId);
+    }
+    
     // Get recent orders
     @GetMapping("/orders/recent")
-    public ResponseEntity<List<Order>> getRecentOrders(Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
-        List<Order> orders = orderService.getOrdersByShop(shop);
-        // Return only the 10 most recent orders
-        return ResponseEntity.ok(orders.stream().limit(10).toList());
+    public ResponseEntity<List<Order>> getRecentOrders(AuthenticatedUser principal) {
+        Shop shop = shopService.getReference(principal.getId());
+        // Only the 10 most recent orders are read from the database
+        return ResponseEntity.ok(orderService.getRecentOrdersByShop(shop, 10));
     }
     
     // Get order by ID
     @GetMapping("/orders/{orderId}")
-    public ResponseEntity<Order> getOrderById(@PathVariable Long orderId, Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Order> getOrderById(@PathVariable Long orderId, AuthenticatedUser principal) {
         Order order = orderService.findById(orderId);
         
-        if (!order.getShop().getId().equals(shop.getId())) {
+        if (!order.getShop().getId().equals(principal.getId())) {
             return ResponseEntity.badRequest().build();
         }
         
@@ -252,66 +284,27 @@ public class ShopController {
 
     // Get order with items for preparation view
     @GetMapping("/orders/{orderId}/details")
-    public ResponseEntity<org.example.dto.OrderWithItemsDTO> getOrderDetails(@PathVariable Long orderId, Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
-        Order order = orderService.findById(orderId);
-        
-        if (!order.getShop().getId().equals(shop.getId())) {
-            return ResponseEntity.badRequest().build();
-        }
-        
-        java.util.List<org.example.dto.OrderItemDTO> items = order.getOrderItems().stream().map(oi ->
-            new org.example.dto.OrderItemDTO(
-                oi.getFood().getId(),
-                oi.getFood().getName(),
-                oi.getQuantity(),
-                oi.getUnitPrice(),
-                oi.getTotalPrice()
-            )
-        ).toList();
-        
-        org.example.dto.OrderWithItemsDTO dto = new org.example.dto.OrderWithItemsDTO(
-            order.getId(),
-            order.getOrderNumber(),
-            order.getTotalAmount(),
-            order.getStatus().name(),
-            order.getPaymentStatus().name(),
-            order.getCreatedAt(),
-            items
-        );
-        
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<OrderWithItemsDTO> getOrderDetails(@PathVariable Long orderId, AuthenticatedUser principal) {
+        return orderService.getShopOrderDetails(orderId, principal.getId())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
     
     // Analytics endpoint
     @GetMapping("/analytics")
-    public ResponseEntity<Map<String, Object>> getAnalytics(Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<Map<String, Object>> getAnalytics(AuthenticatedUser principal,
+                                                            @RequestParam(value = "days", defaultValue = "7") int days) {
         
-        // Get top selling foods
-        List<Food> foods = foodService.getFoodsByShop(shop);
-        List<Map<String, Object>> topSellingItems = foods.stream()
-                .sorted((f1, f2) -> Integer.compare(f2.getTotalOrders(), f1.getTotalOrders()))
-                .limit(5)
-                .map(food -> {
-                    Map<String, Object> item = new java.util.HashMap<>();
-                    item.put("id", food.getId());
-                    item.put("name", food.getName());
-                    item.put("category", food.getCategory() != null ? food.getCategory() : "N/A");
-                    item.put("totalOrders", food.getTotalOrders());
-                    item.put("totalRevenue", food.getPrice().multiply(BigDecimal.valueOf(food.getTotalOrders())));
-                    return item;
-                })
-                .toList();
+        // Top selling foods, aggregated from order items in the database
+        List<Map<String, Object>> topSellingItems = toTopSellingMaps(dashboardStatsService.getTopSellingItems(principal.getId(), 5, null));
         
-        // Generate revenue data for the last 7 days
-        List<String> labels = List.of("6 days ago", "5 days ago", "4 days ago", "3 days ago", "2 days ago", "Yesterday", "Today");
-        List<BigDecimal> values = List.of(
-            BigDecimal.valueOf(150), BigDecimal.valueOf(200), BigDecimal.valueOf(180),
-            BigDecimal.valueOf(250), BigDecimal.valueOf(300), BigDecimal.valueOf(220), BigDecimal.valueOf(280)
-        );
+        // Daily revenue for the requested window (7/30/365 days), read from the shop_daily_revenue rollup
+        int window = Math.max(1, Math.min(days, 366));
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, BigDecimal> dailyRevenue =
+                revenueRollupService.getDailyRevenue(principal.getId(), today.minusDays(window - 1), today);
+        List<String> labels = dailyRevenue.keySet().stream().map(LocalDate::toString).toList();
+        List<BigDecimal> values = List.copyOf(dailyRevenue.values());
         
         Map<String, Object> revenueData = Map.of(
             "labels", labels,
@@ -324,51 +317,49 @@ public class ShopController {
         ));
     }
     
-    // Get customers who ordered from this shop
+    // Top-N sellers for an optional time window (days), revenue from the prices actually charged
+    @GetMapping("/analytics/top-sellers")
+    public ResponseEntity<List<Map<String, Object>>> getTopSellers(AuthenticatedUser principal,
+                                                                   @RequestParam(value = "limit", defaultValue = "5") int limit,
+                                                                   @RequestParam(value = "days", required = false) Integer days) {
+        int n = Math.max(1, Math.min(limit, 100));
+        Integer window = days != null ? Math.max(1, days) : null;
+        return ResponseEntity.ok(toTopSellingMaps(dashboardStatsService.getTopSellingItems(principal.getId(), n, window)));
+    }
+    
+    private List<Map<String, Object>> toTopSellingMaps(List<TopSellingItem> items) {
+        return items.stream()
+                .map(row -> {
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("id", row.getFoodId());
+                    item.put("name", row.getName());
+                    item.put("category", row.getCategory() != null ? row.getCategory() : "N/A");
+                    item.put("totalOrders", row.getOrderCount());
+                    item.put("quantity", row.getQuantity());
+                    item.put("totalRevenue", row.getRevenue());
+                    return item;
+                })
+                .toList();
+    }
+    
+    // Get customers who ordered from this shop (sort=spend|recent, paginated)
     @GetMapping("/customers")
-    public ResponseEntity<List<Map<String, Object>>> getShopCustomers(Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<List<ShopCustomerDTO>> getShopCustomers(AuthenticatedUser principal,
+                                                                  @RequestParam(value = "sort", defaultValue = "spend") String sort,
+                                                                  @RequestParam(value = "page", defaultValue = "0") int page,
+                                                                  @RequestParam(value = "size", defaultValue = "50") int size) {
         
-        List<Order> orders = orderService.getOrdersByShop(shop);
-        Map<Long, Map<String, Object>> customerMap = new java.util.HashMap<>();
+        Page<ShopCustomerDTO> customers =
+                orderService.getShopCustomers(principal.getId(), sort, Math.max(page, 0), Math.max(1, Math.min(size, 200)));
         
-        for (Order order : orders) {
-            Customer customer = order.getCustomer();
-            Long customerId = customer.getId();
-            
-            if (!customerMap.containsKey(customerId)) {
-                customerMap.put(customerId, new java.util.HashMap<>());
-                Map<String, Object> customerData = customerMap.get(customerId);
-                customerData.put("id", customer.getId());
-                customerData.put("name", customer.getName());
-                customerData.put("email", customer.getEmail());
-                customerData.put("phoneNumber", customer.getPhoneNumber());
-                customerData.put("city", customer.getCity());
-                customerData.put("totalOrders", 0);
-                customerData.put("totalSpent", BigDecimal.ZERO);
-                customerData.put("lastOrderDate", null);
-            }
-            
-            Map<String, Object> customerData = customerMap.get(customerId);
-            customerData.put("totalOrders", (Integer) customerData.get("totalOrders") + 1);
-            customerData.put("totalSpent", ((BigDecimal) customerData.get("totalSpent")).add(order.getTotalAmount()));
-            
-            if (customerData.get("lastOrderDate") == null || 
-                order.getCreatedAt().isAfter((LocalDateTime) customerData.get("lastOrderDate"))) {
-                customerData.put("lastOrderDate", order.getCreatedAt());
-            }
-        }
-        
-        return ResponseEntity.ok(new java.util.ArrayList<>(customerMap.values()));
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(customers.getTotalElements()))
+                .body(customers.getContent());
     }
     
     // Get reviews for this shop
     @GetMapping("/reviews")
-    public ResponseEntity<List<Map<String, Object>>> getShopReviews(Authentication authentication) {
-        String email = authentication.getName();
-        shopService.findByEmail(email).orElseThrow();
-        
+    public ResponseEntity<List<Map<String, Object>>> getShopReviews(AuthenticatedUser principal) {
         // For now, return mock reviews since we don't have a review system implemented
         List<Map<String, Object>> reviews = List.of(
             Map.of(
@@ -399,9 +390,8 @@ public class ShopController {
     
     // Activity logs
     @GetMapping("/activity-logs")
-    public ResponseEntity<List<ActivityLog>> getActivityLogs(Authentication authentication) {
-        String email = authentication.getName();
-        Shop shop = shopService.findByEmail(email).orElseThrow();
+    public ResponseEntity<List<ActivityLog>> getActivityLogs(AuthenticatedUser principal) {
+        Shop shop = shopService.getReference(principal.getId());
         return ResponseEntity.ok(activityLogService.getActivityLogsByUser(shop));
     }
 }
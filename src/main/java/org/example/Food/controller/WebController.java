@@ -6,10 +6,7 @@ package org.example.controller;
 // Member: Piranavan (order-related pages)
 // Note: Web controller handles view routing for all user types
 
-import org.example.model.User;
-import org.example.service.UserService;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
+import org.example.security.AuthenticatedUser;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,9 +14,6 @@ import org.springframework.web.bind.annotation.GetMapping;
 @Controller
 public class WebController {
     
-    @Autowired
-    private UserService userService;
-    
     @GetMapping("/")
     public String index() {
         return "index";
@@ -46,24 +40,19 @@ public class WebController {
     }
     
     @GetMapping("/dashboard")
-    public String dashboard(Authentication authentication, Model model) {
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            User user = userService.findByEmail(email).orElse(null);
+    public String dashboard(AuthenticatedUser user, Model model) {
+        if (user != null) {
+            model.addAttribute("user", user);
             
-            if (user != null) {
-                model.addAttribute("user", user);
-                
-                switch (user.getRole()) {
-                    case ADMIN:
-                        return "admin/dashboard";
-                    case SHOP:
-                        return "shop/dashboard";
-                    case CUSTOMER:
-                        return "customer/dashboard";
-                    default:
-                        return "login";
-                }
+            switch (user.getRole()) {
+                case ADMIN:
+                    return "admin/dashboard";
+                case SHOP:
+                    return "shop/dashboard";
+                case CUSTOMER:
+                    return "customer/dashboard";
+                default:
+                    return "login";
             }
         }
         return "login";
@@ -75,52 +64,37 @@ public class WebController {
     }
     
     @GetMapping("/shop/**")
-    public String shopDashboard(Authentication authentication, Model model) {
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            User user = userService.findByEmail(email).orElse(null);
-            
-            if (user != null && user.getRole() == org.example.model.UserRole.SHOP) {
-                model.addAttribute("user", user);
-                return "shop/dashboard";
-            }
+    public String shopDashboard(AuthenticatedUser user, Model model) {
+        if (user != null && user.getRole() == org.example.model.UserRole.SHOP) {
+            model.addAttribute("user", user);
+            return "shop/dashboard";
         }
         return "redirect:/login";
     }
     
     @GetMapping("/customer/**")
-    public String customerDashboard(Authentication authentication, Model model) {
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            User user = userService.findByEmail(email).orElse(null);
-            
-            if (user != null && user.getRole() == org.example.model.UserRole.CUSTOMER) {
-                model.addAttribute("user", user);
-                return "customer/dashboard";
-            }
+    public String customerDashboard(AuthenticatedUser user, Model model) {
+        if (user != null && user.getRole() == org.example.model.UserRole.CUSTOMER) {
+            model.addAttribute("user", user);
+            return "customer/dashboard";
         }
         return "redirect:/login";
     }
     
     @GetMapping("/profile")
-    public String profile(Authentication authentication, Model model) {
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            User user = userService.findByEmail(email).orElse(null);
+    public String profile(AuthenticatedUser user, Model model) {
+        if (user != null) {
+            model.addAttribute("user", user);
             
-            if (user != null) {
-                model.addAttribute("user", user);
-                
-                switch (user.getRole()) {
-                    case ADMIN:
-                        return "admin/dashboard";
-                    case SHOP:
-                        return "shop/dashboard";
-                    case CUSTOMER:
-                        return "customer/dashboard";
-                    default:
-                        return "login";
-                }
+            switch (user.getRole()) {
+                case ADMIN:
+                    return "admin/dashboard";
+                case SHOP:
+                    return "shop/dashboard";
+                case CUSTOMER:
+                    return "customer/dashboard";
+                default:
+                    return "login";
             }
         }
         return "redirect:/login";
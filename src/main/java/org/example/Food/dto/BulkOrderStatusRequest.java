@@ -0,0 +1,10 @@
+package org.example.dto;
+
+// Member: Piranavan - Order management
+// Body of PUT /api/shop/orders/status: move every listed order to one status
+// Related database tables: orders and order item tables
+
+import java.util.List;
+
+public record BulkOrderStatusRequest(List<Long> orderIds, String status) {
+}
@@ -0,0 +1,22 @@
+package org.example.dto;
+
+// Member: Arun - Shop & Menu Management
+// Public catalog view of a food: the fields the customer pages read, with the shop reduced to its id
+// Related database tables: shop and food tables
+
+import org.example.model.Food;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record FoodDTO(Long id, String name, String description, BigDecimal price, String imageUrl,
+                      String category, Boolean isAvailable, Integer preparationTime, BigDecimal rating,
+                      Integer totalOrders, Long shopId, LocalDateTime createdAt) {
+
+    // Reads only the shop's id, so a lazy shop proxy is never initialized
+    public static FoodDTO from(Food food) {
+        return new FoodDTO(food.getId(), food.getName(), food.getDescription(), food.getPrice(), food.getImageUrl(),
+                food.getCategory(), food.getIsAvailable(), food.getPreparationTime(), food.getRating(),
+                food.getTotalOrders(), food.getShop() != null ? food.getShop().getId() : null, food.getCreatedAt());
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.dto;
+
+// Response of the faceted catalog query: one page of foods plus facet counts
+
+import java.util.List;
+import java.util.Map;
+
+public class FoodQueryResultDTO {
+    private List<FoodDTO> items;
+    private int total;
+    private int page;
+    private int size;
+    private Map<String, Integer> categoryCounts;
+    private Map<String, Integer> priceCounts;
+
+    public FoodQueryResultDTO() {}
+
+    public FoodQueryResultDTO(List<FoodDTO> items, int total, int page, int size,
+                              Map<String, Integer> categoryCounts, Map<String, Integer> priceCounts) {
+        this.items = items;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.categoryCounts = categoryCounts;
+        this.priceCounts = priceCounts;
+    }
+
+    public List<FoodDTO> getItems() { return items; }
+    public void setItems(List<FoodDTO> items) { this.items = items; }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public Map<String, Integer> getCategoryCounts() { return categoryCounts; }
+    public void setCategoryCounts(Map<String, Integer> categoryCounts) { this.categoryCounts = categoryCounts; }
+
+    public Map<String, Integer> getPriceCounts() { return priceCounts; }
+    public void setPriceCounts(Map<String, Integer> priceCounts) { this.priceCounts = priceCounts; }
+}
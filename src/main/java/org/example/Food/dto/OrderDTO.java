@@ -35,6 +35,32 @@ public class OrderDTO {
     // Constructors
     public OrderDTO() {}
     
+    // Used by JPQL constructor projections (see OrderRepository)
+    public OrderDTO(Long id, String orderNumber, BigDecimal totalAmount, OrderStatus status,
+                    PaymentStatus paymentStatus, String deliveryAddress, String deliveryInstructions,
+                    LocalDateTime estimatedDeliveryTime, LocalDateTime actualDeliveryTime,
+                    LocalDateTime createdAt, LocalDateTime updatedAt,
+                    Long customerId, String customerName, String customerEmail,
+                    Long shopId, String shopName, String shopAddress) {
+        this.id = id;
+        this.orderNumber = orderNumber;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+        this.deliveryAddress = deliveryAddress;
+        this.deliveryInstructions = deliveryInstructions;
+        this.estimatedDeliveryTime = estimatedDeliveryTime;
+        this.actualDeliveryTime = actualDeliveryTime;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.customerEmail = customerEmail;
+        this.shopId = shopId;
+        this.shopName = shopName;
+        this.shopAddress = shopAddress;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
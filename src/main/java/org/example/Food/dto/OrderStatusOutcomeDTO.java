@@ -0,0 +1,23 @@
+package org.example.dto;
+
+// Member: Piranavan - Order management
+// Result for one order of a bulk status change. UNCHANGED (already in the target status) counts as
+// success so a retried request is harmless; NOT_FOUND also covers orders of another shop
+// Related database tables: orders and order item tables
+
+import org.example.model.OrderStatus;
+
+public record OrderStatusOutcomeDTO(Long orderId, String orderNumber, OrderStatus previousStatus, OrderStatus status,
+                                    Result result) {
+
+    public enum Result {
+        UPDATED,
+        UNCHANGED,
+        INVALID_TRANSITION,
+        NOT_FOUND
+    }
+
+    public static OrderStatusOutcomeDTO notFound(Long orderId) {
+        return new OrderStatusOutcomeDTO(orderId, null, null, null, Result.NOT_FOUND);
+    }
+}
@@ -3,6 +3,9 @@ package org.example.dto;
 // Member: Piranavan - Order management
 // Related database tables: orders and order item tables
 
+import org.example.model.OrderStatus;
+import org.example.model.PaymentStatus;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -29,6 +32,12 @@ public class OrderSummaryDTO {
         this.itemCount = itemCount;
     }
 
+    // JPQL constructor expression: enums as mapped on Order, item count from a COUNT subquery
+    public OrderSummaryDTO(Long id, String orderNumber, String shopName, BigDecimal totalAmount, OrderStatus status, PaymentStatus paymentStatus, LocalDateTime createdAt, Long itemCount) {
+        this(id, orderNumber, shopName, totalAmount, status != null ? status.name() : null,
+                paymentStatus != null ? paymentStatus.name() : null, createdAt, itemCount != null ? itemCount.intValue() : 0);
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public String getOrderNumber() { return orderNumber; }
@@ -0,0 +1,22 @@
+package org.example.dto;
+
+// Member: Piranavan - Order management
+// State of one order on the customer's tracking stream. Snapshot rows carry the shop name and the
+// row's updatedAt; live updates leave shopName null and use the time of the change as updatedAt,
+// so a client keeps, per order, whichever version has the latest updatedAt
+// Related database tables: orders and order item tables
+
+import org.example.model.OrderStatus;
+import org.example.push.OrderChangedEvent;
+
+import java.time.LocalDateTime;
+
+public record OrderTrackingDTO(Long orderId, String orderNumber, String shopName, OrderStatus status,
+                               LocalDateTime estimatedDeliveryTime, LocalDateTime actualDeliveryTime,
+                               LocalDateTime updatedAt) {
+
+    public static OrderTrackingDTO from(OrderChangedEvent event) {
+        return new OrderTrackingDTO(event.orderId(), event.orderNumber(), null, event.status(),
+                event.estimatedDeliveryTime(), event.actualDeliveryTime(), event.occurredAt());
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.dto;
+
+// Member: Arun - Shop & Menu Management
+// Per-customer order totals for a shop, built by a single GROUP BY query (see OrderRepository)
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class ShopCustomerDTO {
+    private Long id;
+    private String name;
+    private String email;
+    private String phoneNumber;
+    private String city;
+    private long totalOrders;
+    private BigDecimal totalSpent;
+    private LocalDateTime lastOrderDate;
+
+    public ShopCustomerDTO() {}
+
+    public ShopCustomerDTO(Long id, String name, String email, String phoneNumber, String city,
+                           long totalOrders, BigDecimal totalSpent, LocalDateTime lastOrderDate) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.city = city;
+        this.totalOrders = totalOrders;
+        this.totalSpent = totalSpent;
+        this.lastOrderDate = lastOrderDate;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getPhoneNumber() { return phoneNumber; }
+    public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public long getTotalOrders() { return totalOrders; }
+    public void setTotalOrders(long totalOrders) { this.totalOrders = totalOrders; }
+
+    public BigDecimal getTotalSpent() { return totalSpent; }
+    public void setTotalSpent(BigDecimal totalSpent) { this.totalSpent = totalSpent; }
+
+    public LocalDateTime getLastOrderDate() { return lastOrderDate; }
+    public void setLastOrderDate(LocalDateTime lastOrderDate) { this.lastOrderDate = lastOrderDate; }
+}
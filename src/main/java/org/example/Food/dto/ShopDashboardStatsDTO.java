@@ -0,0 +1,46 @@
+package org.example.dto;
+
+// Member: Arun - Shop & Menu Management
+// Everything the shop dashboard header needs, computed with aggregate queries
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public class ShopDashboardStatsDTO {
+    private long totalOrders;
+    private BigDecimal totalRevenue;
+    private BigDecimal todayRevenue;
+    private long totalFoods;
+    private BigDecimal shopRating;
+    private Map<String, Long> ordersByStatus;
+
+    public ShopDashboardStatsDTO() {}
+
+    public ShopDashboardStatsDTO(long totalOrders, BigDecimal totalRevenue, BigDecimal todayRevenue,
+                                 long totalFoods, BigDecimal shopRating, Map<String, Long> ordersByStatus) {
+        this.totalOrders = totalOrders;
+        this.totalRevenue = totalRevenue;
+        this.todayRevenue = todayRevenue;
+        this.totalFoods = totalFoods;
+        this.shopRating = shopRating;
+        this.ordersByStatus = ordersByStatus;
+    }
+
+    public long getTotalOrders() { return totalOrders; }
+    public void setTotalOrders(long totalOrders) { this.totalOrders = totalOrders; }
+
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+    public void setTotalRevenue(BigDecimal totalRevenue) { this.totalRevenue = totalRevenue; }
+
+    public BigDecimal getTodayRevenue() { return todayRevenue; }
+    public void setTodayRevenue(BigDecimal todayRevenue) { this.todayRevenue = todayRevenue; }
+
+    public long getTotalFoods() { return totalFoods; }
+    public void setTotalFoods(long totalFoods) { this.totalFoods = totalFoods; }
+
+    public BigDecimal getShopRating() { return shopRating; }
+    public void setShopRating(BigDecimal shopRating) { this.shopRating = shopRating; }
+
+    public Map<String, Long> getOrdersByStatus() { return ordersByStatus; }
+    public void setOrdersByStatus(Map<String, Long> ordersByStatus) { this.ordersByStatus = ordersByStatus; }
+}
@@ -0,0 +1,14 @@
+package org.example.dto;
+
+// Member: Piranavan - Order management
+// Projection for the aggregated per-shop order figures (see OrderRepository.aggregateShopOrderStats)
+
+import java.math.BigDecimal;
+
+public interface ShopOrderStats {
+    Long getTotalOrders();
+
+    BigDecimal getTotalRevenue();
+
+    BigDecimal getRangeRevenue();
+}
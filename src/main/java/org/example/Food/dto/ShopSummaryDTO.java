@@ -0,0 +1,21 @@
+package org.example.dto;
+
+// Member: Arun - Shop & Menu Management
+// Public view of a shop for browsing and search. Unlike the Shop entity it carries no
+// account data (password hash, authorities, account flags)
+// Related database tables: shop and food tables
+
+import org.example.model.Shop;
+
+import java.math.BigDecimal;
+
+public record ShopSummaryDTO(Long id, String shopName, String description, String address, String city,
+                             String postalCode, String name, String email, String phoneNumber,
+                             BigDecimal rating, Integer totalOrders) {
+
+    public static ShopSummaryDTO from(Shop shop) {
+        return new ShopSummaryDTO(shop.getId(), shop.getShopName(), shop.getDescription(), shop.getAddress(),
+                shop.getCity(), shop.getPostalCode(), shop.getName(), shop.getEmail(), shop.getPhoneNumber(),
+                shop.getRating(), shop.getTotalOrders());
+    }
+}
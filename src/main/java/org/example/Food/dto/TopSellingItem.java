@@ -0,0 +1,20 @@
+package org.example.dto;
+
+// Member: Arun - Shop & Menu Management
+// Projection for top-selling foods aggregated from order_items (see OrderItemRepository.findTopSellingItems)
+
+import java.math.BigDecimal;
+
+public interface TopSellingItem {
+    Long getFoodId();
+
+    String getName();
+
+    String getCategory();
+
+    Long getQuantity();
+
+    Long getOrderCount();
+
+    BigDecimal getRevenue();
+}
@@ -73,8 +73,9 @@ public class Order {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        // Assigned by OrderService (OrderNumberGenerator); a timestamp here collided under load
         if (orderNumber == null) {
-            orderNumber = "ORD-" + System.currentTimeMillis();
+            throw new IllegalStateException("Order number must be assigned before the order is saved");
         }
     }
 
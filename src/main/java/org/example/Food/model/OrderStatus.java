@@ -7,5 +7,17 @@ public enum OrderStatus {
     READY_FOR_DELIVERY,
     OUT_FOR_DELIVERY,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    // Kitchen workflow: one step forward at a time; an order can be cancelled until it is delivered
+    public boolean canTransitionTo(OrderStatus next) {
+        return switch (this) {
+            case PENDING -> next == CONFIRMED || next == CANCELLED;
+            case CONFIRMED -> next == PREPARING || next == CANCELLED;
+            case PREPARING -> next == READY_FOR_DELIVERY || next == CANCELLED;
+            case READY_FOR_DELIVERY -> next == OUT_FOR_DELIVERY || next == CANCELLED;
+            case OUT_FOR_DELIVERY -> next == DELIVERED || next == CANCELLED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
 }
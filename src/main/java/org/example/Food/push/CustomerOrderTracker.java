@@ -0,0 +1,174 @@
+package org.example.push;
+
+// Member: Piranavan - Order management
+// Per-customer order tracking stream (server-sent events) replacing the polling of /orders/recent.
+// Order changes are collected in a coalescing buffer and flushed every app.order-tracking.coalesce-ms:
+// several transitions of the same order inside one interval (CONFIRMED -> PREPARING -> READY...)
+// reach the client as a single "orders" message with the latest state. Every new connection
+// (first load or reconnect) gets a "snapshot" of the customer's recent orders from one indexed
+// query, so no per-customer history is kept in memory.
+// Related database tables: orders and order item tables
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.dto.OrderTrackingDTO;
+import org.example.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class CustomerOrderTracker {
+    private static final Logger log = LoggerFactory.getLogger(CustomerOrderTracker.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Value("${app.order-tracking.coalesce-ms:1000}")
+    private long coalesceMs;
+
+    @Value("${app.order-tracking.snapshot-hours:24}")
+    private long snapshotHours;
+
+    @Value("${app.order-tracking.snapshot-size:20}")
+    private int snapshotSize;
+
+    @Value("${app.order-tracking.timeout-ms:2400000}")
+    private long timeoutMs;
+
+    @Value("${app.order-tracking.queue-size:256}")
+    private int queueSize;
+
+    @Value("${app.order-tracking.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${app.order-tracking.heartbeat-ms:25000}")
+    private long heartbeatMs;
+
+    private SseEmitterRegistry<Long> registry;
+    private ScheduledExecutorService flusher;
+
+    // customer id -> order id -> latest state since the last flush
+    private final Map<Long, Map<Long, OrderTrackingDTO>> pending = new ConcurrentHashMap<>();
+    // Customers with a new connection waiting for their snapshot
+    private final Set<Long> snapshotRequests = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder snapshots = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        registry = new SseEmitterRegistry<>("order-tracking", timeoutMs, queueSize, senderThreads);
+        // Own thread: snapshot queries must not hold up the shared @Scheduled thread
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-tracking-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, coalesceMs, coalesceMs, TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(registry::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        registry.shutdown();
+    }
+
+    // The snapshot follows within one coalesce interval and is sent before any later update
+    public SseEmitter subscribe(Long customerId) {
+        SseEmitter emitter = registry.register(customerId, List.of());
+        snapshotRequests.add(customerId);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!registry.hasConnections(event.customerId())) {
+            return;
+        }
+        received.increment();
+        OrderTrackingDTO update = OrderTrackingDTO.from(event);
+        pending.compute(event.customerId(), (id, updates) -> {
+            Map<Long, OrderTrackingDTO> merged = updates != null ? updates : new LinkedHashMap<>();
+            // Listeners of concurrent commits can run out of order; keep the newer change
+            merged.merge(update.orderId(), update,
+                    (current, next) -> next.updatedAt().isBefore(current.updatedAt()) ? current : next);
+            return merged;
+        });
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(registry.stats());
+        stats.put("changesReceived", received.sum());
+        stats.put("messagesFlushed", messages.sum());
+        stats.put("snapshots", snapshots.sum());
+        return stats;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Order tracking flush failed", e);
+        }
+    }
+
+    // Everything is sent from this thread, so per customer the snapshot and the updates are queued in order.
+    // Updates drained before a customer's snapshot query are already reflected in it and are dropped;
+    // changes committed after the drain go out with the next flush, after the snapshot
+    private void flush() {
+        List<Long> needSnapshot = new ArrayList<>();
+        for (Long customerId : snapshotRequests) {
+            if (snapshotRequests.remove(customerId)) {
+                needSnapshot.add(customerId);
+            }
+        }
+        Map<Long, Map<Long, OrderTrackingDTO>> batch = new LinkedHashMap<>();
+        for (Long customerId : pending.keySet()) {
+            Map<Long, OrderTrackingDTO> updates = pending.remove(customerId);
+            if (updates != null) {
+                batch.put(customerId, updates);
+            }
+        }
+
+        LocalDateTime since = LocalDateTime.now().minusHours(snapshotHours);
+        for (Long customerId : needSnapshot) {
+            if (!registry.hasConnections(customerId)) {
+                continue;
+            }
+            try {
+                List<OrderTrackingDTO> orders = orderService.getTrackingSnapshot(customerId, since, snapshotSize);
+                registry.send(customerId, new SseEmitterRegistry.Message(null, "snapshot", orders));
+                snapshots.increment();
+                batch.remove(customerId);
+            } catch (RuntimeException e) {
+                // Retry with the next flush; the drained updates are still sent below
+                log.warn("Order tracking snapshot for customer {} failed: {}", customerId, e.getMessage());
+                snapshotRequests.add(customerId);
+            }
+        }
+
+        batch.forEach((customerId, updates) -> {
+            registry.send(customerId, new SseEmitterRegistry.Message(null, "orders", List.copyOf(updates.values())));
+            messages.increment();
+        });
+    }
+}
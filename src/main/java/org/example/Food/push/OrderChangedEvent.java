@@ -0,0 +1,31 @@
+package org.example.push;
+
+// Member: Piranavan - Order management
+// Published by OrderService when an order is created, changes status or is cancelled.
+// Listeners run after the transaction commits; the record is also the JSON payload pushed to clients.
+// Related database tables: orders and order item tables
+
+import org.example.model.Order;
+import org.example.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record OrderChangedEvent(Type type, Long orderId, String orderNumber, Long shopId, Long customerId,
+                                OrderStatus previousStatus, OrderStatus status, BigDecimal totalAmount,
+                                LocalDateTime estimatedDeliveryTime, LocalDateTime actualDeliveryTime,
+                                LocalDateTime occurredAt) {
+
+    public enum Type {
+        ORDER_CREATED,
+        STATUS_CHANGED,
+        ORDER_CANCELLED
+    }
+
+    // Only reads the shop and customer ids, so their lazy proxies are not initialized
+    public static OrderChangedEvent of(Type type, Order order, OrderStatus previousStatus) {
+        return new OrderChangedEvent(type, order.getId(), order.getOrderNumber(), order.getShop().getId(),
+                order.getCustomer().getId(), previousStatus, order.getStatus(), order.getTotalAmount(),
+                order.getEstimatedDeliveryTime(), order.getActualDeliveryTime(), LocalDateTime.now());
+    }
+}
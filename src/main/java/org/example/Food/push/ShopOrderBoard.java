@@ -0,0 +1,123 @@
+package org.example.push;
+
+// Member: Piranavan - Order management
+// Live order board for shops: pushes order-created / status-changed / cancelled deltas to the
+// owning shop's open dashboards over server-sent events, instead of the dashboard re-polling
+// its whole order list. Each shop keeps its last app.order-board.replay-size events so a client
+// that reconnects with Last-Event-ID receives what it missed; if the gap is older than that (or
+// the server restarted) it gets a "resync" event and reloads through the REST endpoints.
+// Related database tables: orders and order item tables
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ShopOrderBoard {
+
+    private static final String RESYNC = "resync";
+
+    // Event ids are "<epoch>-<sequence>"; the epoch tells ids of an earlier server run apart
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final int replaySize;
+    private final SseEmitterRegistry<Long> registry;
+    private final Map<Long, ShopHistory> histories = new ConcurrentHashMap<>();
+
+    private static final class ShopHistory {
+        private final Deque<Entry> events = new ArrayDeque<>();
+        // Highest sequence pushed out of the replay window; a client behind it has missed events
+        private long evictedUpTo;
+    }
+
+    private record Entry(long sequence, SseEmitterRegistry.Message message) {
+    }
+
+    public ShopOrderBoard(@Value("${app.order-board.replay-size:100}") int replaySize,
+                          @Value("${app.order-board.timeout-ms:1800000}") long timeoutMs,
+                          @Value("${app.order-board.queue-size:256}") int queueSize,
+                          @Value("${app.order-board.sender-threads:4}") int senderThreads) {
+        this.replaySize = replaySize;
+        this.registry = new SseEmitterRegistry<>("order-board", timeoutMs, queueSize, senderThreads);
+    }
+
+    public SseEmitter subscribe(Long shopId, String lastEventId) {
+        ShopHistory history = histories.computeIfAbsent(shopId, id -> new ShopHistory());
+        // Same lock as publish, so the replay and the live events neither overlap nor leave a gap
+        synchronized (history) {
+            return registry.register(shopId, missedEvents(history, lastEventId));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        ShopHistory history = histories.computeIfAbsent(event.shopId(), id -> new ShopHistory());
+        synchronized (history) {
+            long seq = sequence.incrementAndGet();
+            SseEmitterRegistry.Message message = new SseEmitterRegistry.Message(epoch + "-" + seq,
+                    event.type().name(), event);
+            history.events.addLast(new Entry(seq, message));
+            while (history.events.size() > replaySize) {
+                history.evictedUpTo = history.events.removeFirst().sequence();
+            }
+            registry.send(event.shopId(), message);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-board.heartbeat-ms:25000}")
+    public void heartbeat() {
+        registry.heartbeat();
+    }
+
+    public Map<String, Object> stats() {
+        return registry.stats();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        registry.shutdown();
+    }
+
+    // No Last-Event-ID: a fresh page that has just loaded the orders itself, nothing to replay
+    private List<SseEmitterRegistry.Message> missedEvents(ShopHistory history, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+        long lastSeq = parseSequence(lastEventId);
+        if (lastSeq < 0 || lastSeq < history.evictedUpTo) {
+            return List.of(new SseEmitterRegistry.Message(null, RESYNC, Map.of("reason", "history unavailable")));
+        }
+        List<SseEmitterRegistry.Message> missed = new ArrayList<>();
+        for (Entry entry : history.events) {
+            if (entry.sequence() > lastSeq) {
+                missed.add(entry.message());
+            }
+        }
+        return missed;
+    }
+
+    // -1 for ids from another server run or malformed ids
+    private long parseSequence(String lastEventId) {
+        int dash = lastEventId.indexOf('-');
+        if (dash <= 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
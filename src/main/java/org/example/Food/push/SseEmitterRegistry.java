@@ -0,0 +1,201 @@
+package org.example.push;
+
+// Server-sent event connections grouped by key (shop id, customer id, ...).
+// Each connection has its own bounded frame queue, drained by a small shared pool of sender threads,
+// so events reach a client in the order they were sent and the publishing thread never blocks.
+// A stalled client holds at most one sender thread until its write fails; meanwhile its queue fills
+// up and it is dropped, while the other clients are served by the remaining threads. Connections are
+// dropped on completion, timeout, a full queue or the first failed write; clients reconnect with
+// Last-Event-ID.
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SseEmitterRegistry<K> {
+    private static final Logger log = LoggerFactory.getLogger(SseEmitterRegistry.class);
+
+    // One event to write: a null name/id is omitted from the frame
+    public record Message(String id, String name, Object data) {
+    }
+
+    private final class Connection {
+        private final K key;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<SseEmitter.SseEventBuilder> frames;
+        // True while a drain task for this connection is queued or running
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Connection(K key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+            this.frames = new ArrayBlockingQueue<>(queueSize);
+        }
+    }
+
+    private final String name;
+    private final long timeoutMs;
+    private final int queueSize;
+    private final Map<K, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    // queueSize bounds the frames waiting for one connection; senderThreads is shared by all connections
+    public SseEmitterRegistry(String name, long timeoutMs, int queueSize, int senderThreads) {
+        this.name = name;
+        this.timeoutMs = timeoutMs;
+        this.queueSize = queueSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-sse-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // The initial messages (replay or snapshot) are queued before the connection becomes visible to send,
+    // so they come before any event sent after this call
+    public SseEmitter register(K key, List<Message> initialMessages) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(key, emitter);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+        initialMessages.forEach(message -> enqueue(connection, frame(message)));
+        if (!connection.closed) {
+            connections.compute(key, (k, current) -> {
+                Set<Connection> updated = current != null ? current : ConcurrentHashMap.newKeySet();
+                updated.add(connection);
+                return updated;
+            });
+        }
+        return emitter;
+    }
+
+    // The current connections of the key are captured now, so a client registering after this call
+    // does not also receive the message (it gets it through its replay instead)
+    public void send(K key, Message message) {
+        Set<Connection> current = connections.get(key);
+        if (current == null || current.isEmpty()) {
+            return;
+        }
+        for (Connection connection : List.copyOf(current)) {
+            enqueue(connection, frame(message));
+        }
+    }
+
+    public boolean hasConnections(K key) {
+        Set<Connection> current = connections.get(key);
+        return current != null && !current.isEmpty();
+    }
+
+    // Comment frame: keeps proxies from closing idle connections and detects dead clients.
+    // Connections that still have frames to write are skipped, they are not idle
+    public void heartbeat() {
+        connections.values().forEach(current -> current.forEach(connection -> {
+            if (!connection.draining.get() && connection.frames.isEmpty()) {
+                enqueue(connection, SseEmitter.event().comment("keepalive"));
+            }
+        }));
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+            "keys", connections.size(),
+            "connections", connections.values().stream().mapToInt(Set::size).sum(),
+            "sent", sent.sum(),
+            "dropped", dropped.sum(),
+            "queued", connections.values().stream().flatMap(Set::stream).mapToInt(c -> c.frames.size()).sum()
+        );
+    }
+
+    public void shutdown() {
+        connections.values().forEach(current -> current.forEach(connection -> connection.emitter.complete()));
+        connections.clear();
+        sender.shutdownNow();
+    }
+
+    private static SseEmitter.SseEventBuilder frame(Message message) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().data(message.data(), MediaType.APPLICATION_JSON);
+        if (message.id() != null) {
+            event.id(message.id());
+        }
+        if (message.name() != null) {
+            event.name(message.name());
+        }
+        return event;
+    }
+
+    // A client that falls a whole queue behind is closed rather than silently skipped:
+    // it reconnects with Last-Event-ID and catches up from the replay
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder frame) {
+        if (connection.closed) {
+            return;
+        }
+        if (!connection.frames.offer(frame)) {
+            dropped.increment();
+            log.warn("{} push queue full for {}, closing the connection", name, connection.key);
+            remove(connection);
+            connection.emitter.complete();
+            return;
+        }
+        scheduleDrain(connection);
+    }
+
+    private void scheduleDrain(Connection connection) {
+        if (connection.draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(connection));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                connection.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Connection connection) {
+        SseEmitter.SseEventBuilder frame;
+        while (!connection.closed && (frame = connection.frames.poll()) != null) {
+            try {
+                connection.emitter.send(frame);
+                sent.increment();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; completing triggers onCompletion, which removes it
+                remove(connection);
+                connection.emitter.completeWithError(e);
+                return;
+            }
+        }
+        connection.draining.set(false);
+        // A frame queued after the last poll but before the flag was cleared found draining still set
+        if (!connection.closed && !connection.frames.isEmpty()) {
+            scheduleDrain(connection);
+        }
+    }
+
+    private void remove(Connection connection) {
+        connection.closed = true;
+        connection.frames.clear();
+        connections.computeIfPresent(connection.key, (k, current) -> {
+            current.remove(connection);
+            return current.isEmpty() ? null : current;
+        });
+    }
+}
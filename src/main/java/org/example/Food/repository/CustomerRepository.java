@@ -5,6 +5,7 @@ package org.example.repository;
 
 import org.example.model.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -27,4 +28,10 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     
     @Query("SELECT c FROM Customer c WHERE c.totalSpent >= :minAmount AND c.isActive = true ORDER BY c.totalSpent DESC")
     List<Customer> findTopCustomersBySpending(@Param("minAmount") BigDecimal minAmount);
+    
+    // Native so the joined users table is not touched by the bulk update
+    @Modifying
+    @Query(value = "UPDATE customers SET total_orders = COALESCE(total_orders, 0) + :orders, " +
+                   "total_spent = COALESCE(total_spent, 0) + :amount WHERE id = :customerId", nativeQuery = true)
+    int incrementStats(@Param("customerId") Long customerId, @Param("orders") int orders, @Param("amount") BigDecimal amount);
 }
@@ -2,11 +2,15 @@ package org.example.repository;
 
 import org.example.model.Food;
 import org.example.model.Shop;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Repository
@@ -20,6 +24,9 @@ public interface FoodRepository extends JpaRepository<Food, Long> {
     
     List<Food> findByIsAvailable(Boolean isAvailable);
     
+    @Query("SELECT COUNT(f) FROM Food f WHERE f.shop.id = :shopId")
+    long countByShopId(@Param("shopId") Long shopId);
+    
     @Query("SELECT f FROM Food f WHERE f.shop = :shop AND f.isAvailable = true ORDER BY f.name")
     List<Food> findAvailableByShop(@Param("shop") Shop shop);
     
@@ -29,9 +36,14 @@ public interface FoodRepository extends JpaRepository<Food, Long> {
     @Query("SELECT f FROM Food f WHERE f.name LIKE %:name% AND f.isAvailable = true")
     List<Food> findByNameContainingAndAvailable(@Param("name") String name);
     
-    @Query("SELECT f FROM Food f WHERE f.price BETWEEN :minPrice AND :maxPrice AND f.isAvailable = true")
-    List<Food> findByPriceRangeAndAvailable(@Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice);
+    // Exact decimal bounds; served by idx_foods_available_price (is_available, price), ordering comes from the Pageable
+    @Query("SELECT f FROM Food f WHERE f.isAvailable = true AND f.price BETWEEN :minPrice AND :maxPrice")
+    Page<Food> findByPriceRangeAndAvailable(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice, Pageable pageable);
     
     @Query("SELECT f FROM Food f WHERE f.shop.isApproved = true AND f.shop.isActive = true AND f.isAvailable = true")
     List<Food> findAllAvailableFromApprovedShops();
+    
+    @Modifying
+    @Query("UPDATE Food f SET f.totalOrders = COALESCE(f.totalOrders, 0) + :delta WHERE f.id = :foodId")
+    int incrementTotalOrders(@Param("foodId") Long foodId, @Param("delta") int delta);
 }
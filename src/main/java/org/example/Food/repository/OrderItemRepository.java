@@ -3,14 +3,18 @@ package org.example.repository;
 // Member: Piranavan - Order management
 // Related database tables: orders and order item tables
 
+import org.example.dto.TopSellingItem;
 import org.example.model.Food;
 import org.example.model.Order;
 import org.example.model.OrderItem;
+import org.example.model.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -25,4 +29,14 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     
     @Query("SELECT oi.food, SUM(oi.quantity) as totalQuantity FROM OrderItem oi WHERE oi.food = :food GROUP BY oi.food")
     List<Object[]> findTotalQuantityByFood(@Param("food") Food food);
+    
+    // Top-N foods of a shop by quantity sold since a point in time; revenue uses the price actually charged
+    @Query("SELECT f.id AS foodId, f.name AS name, f.category AS category, SUM(oi.quantity) AS quantity, " +
+           "COUNT(DISTINCT o.id) AS orderCount, SUM(oi.totalPrice) AS revenue " +
+           "FROM OrderItem oi JOIN oi.order o JOIN oi.food f " +
+           "WHERE o.shop.id = :shopId AND o.status <> :excludedStatus AND o.createdAt >= :since " +
+           "GROUP BY f.id, f.name, f.category " +
+           "ORDER BY SUM(oi.quantity) DESC, SUM(oi.totalPrice) DESC")
+    List<TopSellingItem> findTopSellingItems(@Param("shopId") Long shopId, @Param("excludedStatus") OrderStatus excludedStatus,
+                                             @Param("since") LocalDateTime since, Pageable pageable);
 }
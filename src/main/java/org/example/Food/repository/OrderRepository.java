@@ -3,17 +3,29 @@ package org.example.repository;
 // Member: Piranavan - Order management
 // Related database tables: orders and order item tables
 
+import org.example.dto.OrderDTO;
+import org.example.dto.OrderSummaryDTO;
+import org.example.dto.OrderTrackingDTO;
+import org.example.dto.ShopCustomerDTO;
+import org.example.dto.ShopOrderStats;
 import org.example.model.Customer;
 import org.example.model.Order;
 import org.example.model.OrderStatus;
 import org.example.model.PaymentStatus;
 import org.example.model.Shop;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,27 +42,133 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     List<Order> findByPaymentStatus(PaymentStatus paymentStatus);
     
-    @Query("SELECT o FROM Order o WHERE o.customer = :customer ORDER BY o.createdAt DESC")
-    List<Order> findByCustomerOrderByCreatedAtDesc(@Param("customer") Customer customer);
+    // Order board and history lookups. They filter on the foreign key column directly (no join to
+    // shops/customers) and sort or range on created_at only, so they walk the V5 composite indexes
+    // idx_orders_shop_created, idx_orders_shop_status_created and idx_orders_customer_created_id (V6)
+    // in order without a filesort. Keep the ORDER BY aligned with those indexes when changing them.
+    @Query("SELECT o FROM Order o WHERE o.customer.id = :customerId ORDER BY o.createdAt DESC")
+    List<Order> findByCustomerIdOrderByCreatedAtDesc(@Param("customerId") Long customerId);
     
-    @Query("SELECT o FROM Order o WHERE o.shop = :shop ORDER BY o.createdAt DESC")
-    List<Order> findByShopOrderByCreatedAtDesc(@Param("shop") Shop shop);
+    @Query("SELECT o FROM Order o WHERE o.shop.id = :shopId ORDER BY o.createdAt DESC")
+    List<Order> findByShopIdOrderByCreatedAtDesc(@Param("shopId") Long shopId);
     
-    @Query("SELECT o FROM Order o WHERE o.status = :status AND o.shop = :shop")
-    List<Order> findByStatusAndShop(@Param("status") OrderStatus status, @Param("shop") Shop shop);
+    // Same as above but stops after the first page of index entries
+    @Query("SELECT o FROM Order o WHERE o.shop.id = :shopId ORDER BY o.createdAt DESC")
+    List<Order> findRecentByShopId(@Param("shopId") Long shopId, Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.shop.id = :shopId AND o.status = :status ORDER BY o.createdAt DESC")
+    List<Order> findByShopIdAndStatus(@Param("shopId") Long shopId, @Param("status") OrderStatus status);
     
     @Query("SELECT o FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate")
     List<Order> findByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT o FROM Order o WHERE o.shop = :shop AND o.createdAt BETWEEN :startDate AND :endDate")
-    List<Order> findByShopAndCreatedAtBetween(@Param("shop") Shop shop, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT o FROM Order o WHERE o.shop.id = :shopId AND o.createdAt BETWEEN :startDate AND :endDate ORDER BY o.createdAt DESC")
+    List<Order> findByShopIdAndCreatedAtBetween(@Param("shopId") Long shopId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     @Query("SELECT o FROM Order o WHERE o.customer = :customer AND o.createdAt BETWEEN :startDate AND :endDate")
     List<Order> findByCustomerAndCreatedAtBetween(@Param("customer") Customer customer, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.shop = :shop")
-    long countByShop(@Param("shop") Shop shop);
+    // Order tracking snapshot: a range scan on idx_orders_customer_created_id plus the shop name by primary key
+    @Query("SELECT new org.example.dto.OrderTrackingDTO(o.id, o.orderNumber, s.shopName, o.status, " +
+           "o.estimatedDeliveryTime, o.actualDeliveryTime, o.updatedAt) " +
+           "FROM Order o JOIN o.shop s WHERE o.customer.id = :customerId AND o.createdAt >= :since ORDER BY o.createdAt DESC")
+    List<OrderTrackingDTO> findTrackingSnapshot(@Param("customerId") Long customerId, @Param("since") LocalDateTime since,
+                                                Pageable pageable);
+    
+    // Customer order history: shop name by primary key and the item count from a COUNT subquery on
+    // idx_order_items_order_id, in one statement. Keyset paging on (created_at, id) follows
+    // idx_orders_customer_created_id, so every page reads only size + 1 index entries
+    String ORDER_SUMMARY_SELECT = "SELECT new org.example.dto.OrderSummaryDTO(o.id, o.orderNumber, s.shopName, o.totalAmount, " +
+            "o.status, o.paymentStatus, o.createdAt, (SELECT COUNT(oi) FROM OrderItem oi WHERE oi.order = o)) " +
+            "FROM Order o JOIN o.shop s WHERE o.customer.id = :customerId ";
+    
+    @Query(ORDER_SUMMARY_SELECT + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryDTO> findCustomerOrderSummaries(@Param("customerId") Long customerId, Pageable pageable);
+    
+    @Query(ORDER_SUMMARY_SELECT + "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryDTO> findCustomerOrderSummariesBefore(@Param("customerId") Long customerId, @Param("createdAt") LocalDateTime createdAt,
+                                                           @Param("id") Long id, Pageable pageable);
+    
+    // Order detail views: the order, its items and their foods in one fetch-join statement. The owner
+    // is part of the WHERE clause (foreign key column, no join), so an order of someone else is simply not found
+    String ORDER_DETAILS_SELECT = "SELECT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.food WHERE o.id = :orderId ";
+    
+    @Query(ORDER_DETAILS_SELECT + "AND o.shop.id = :shopId")
+    Optional<Order> findDetailsByIdAndShopId(@Param("orderId") Long orderId, @Param("shopId") Long shopId);
+    
+    @Query(ORDER_DETAILS_SELECT + "AND o.customer.id = :customerId")
+    Optional<Order> findDetailsByIdAndCustomerId(@Param("orderId") Long orderId, @Param("customerId") Long customerId);
+    
+    // Bulk status changes: the read locks the shop's rows (SELECT ... FOR UPDATE), so the transitions
+    // checked in memory still hold when the single UPDATE below is applied to the same ids
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.shop.id = :shopId")
+    List<Order> findByIdInAndShopIdForUpdate(@Param("ids") Collection<Long> ids, @Param("shopId") Long shopId);
+    
+    // Null delivery times keep the current value. Clears the persistence context, as the loaded orders are now stale
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :updatedAt, " +
+           "o.estimatedDeliveryTime = COALESCE(:estimatedDeliveryTime, o.estimatedDeliveryTime), " +
+           "o.actualDeliveryTime = COALESCE(:actualDeliveryTime, o.actualDeliveryTime) " +
+           "WHERE o.id IN :ids AND o.shop.id = :shopId")
+    int updateStatusByIdInAndShopId(@Param("ids") Collection<Long> ids, @Param("shopId") Long shopId,
+                                    @Param("status") OrderStatus status, @Param("updatedAt") LocalDateTime updatedAt,
+                                    @Param("estimatedDeliveryTime") LocalDateTime estimatedDeliveryTime,
+                                    @Param("actualDeliveryTime") LocalDateTime actualDeliveryTime);
+    
+    // Index-only: answered from the composite indexes without reading order rows
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.shop.id = :shopId")
+    long countByShopId(@Param("shopId") Long shopId);
+    
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.customer.id = :customerId")
+    long countByCustomerId(@Param("customerId") Long customerId);
+    
+    // Admin listing: orders projected straight into OrderDTO with customer and shop joined in
+    String ORDER_DTO_SELECT = "SELECT new org.example.dto.OrderDTO(o.id, o.orderNumber, o.totalAmount, o.status, o.paymentStatus, " +
+            "o.deliveryAddress, o.deliveryInstructions, o.estimatedDeliveryTime, o.actualDeliveryTime, o.createdAt, o.updatedAt, " +
+            "c.id, c.name, c.email, s.id, s.shopName, s.address) FROM Order o JOIN o.customer c JOIN o.shop s ";
+    
+    @Query(ORDER_DTO_SELECT + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderDTO> findOrderDTOs();
+    
+    @Query(ORDER_DTO_SELECT + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderDTO> findOrderDTOPage(Pageable pageable);
+    
+    @Query(ORDER_DTO_SELECT + "WHERE o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderDTO> findOrderDTOPageBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    // Dashboard aggregates, computed in the database instead of over loaded entities
+    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o WHERE o.shop = :shop AND o.paymentStatus = :paymentStatus")
+    BigDecimal sumTotalAmountByShopAndPaymentStatus(@Param("shop") Shop shop, @Param("paymentStatus") PaymentStatus paymentStatus);
+    
+    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o WHERE o.shop = :shop AND o.paymentStatus = :paymentStatus " +
+           "AND o.createdAt BETWEEN :startDate AND :endDate")
+    BigDecimal sumTotalAmountByShopAndPaymentStatusAndCreatedAtBetween(@Param("shop") Shop shop, @Param("paymentStatus") PaymentStatus paymentStatus,
+                                                                       @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT COUNT(o) AS totalOrders, " +
+           "COALESCE(SUM(CASE WHEN o.paymentStatus = :paid THEN o.totalAmount ELSE 0 END), 0) AS totalRevenue, " +
+           "COALESCE(SUM(CASE WHEN o.paymentStatus = :paid AND o.createdAt BETWEEN :startDate AND :endDate THEN o.totalAmount ELSE 0 END), 0) AS rangeRevenue " +
+           "FROM Order o WHERE o.shop.id = :shopId")
+    ShopOrderStats aggregateShopOrderStats(@Param("shopId") Long shopId, @Param("paid") PaymentStatus paid,
+                                           @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    // Index-only on idx_orders_shop_status_created
+    @Query("SELECT o.status, COUNT(o) FROM Order o WHERE o.shop.id = :shopId GROUP BY o.status")
+    List<Object[]> countByStatusForShop(@Param("shopId") Long shopId);
+    
+    // Shop customer analytics: one row per customer with order count, spend and last order date
+    String SHOP_CUSTOMER_SELECT = "SELECT new org.example.dto.ShopCustomerDTO(c.id, c.name, c.email, c.phoneNumber, c.city, " +
+            "COUNT(o), COALESCE(SUM(o.totalAmount), 0), MAX(o.createdAt)) " +
+            "FROM Order o JOIN o.customer c WHERE o.shop.id = :shopId " +
+            "GROUP BY c.id, c.name, c.email, c.phoneNumber, c.city ";
+    String SHOP_CUSTOMER_COUNT = "SELECT COUNT(DISTINCT o.customer.id) FROM Order o WHERE o.shop.id = :shopId";
+    
+    @Query(value = SHOP_CUSTOMER_SELECT + "ORDER BY SUM(o.totalAmount) DESC, c.id", countQuery = SHOP_CUSTOMER_COUNT)
+    Page<ShopCustomerDTO> findShopCustomersBySpend(@Param("shopId") Long shopId, Pageable pageable);
     
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.customer = :customer")
-    long countByCustomer(@Param("customer") Customer customer);
+    @Query(value = SHOP_CUSTOMER_SELECT + "ORDER BY MAX(o.createdAt) DESC, c.id", countQuery = SHOP_CUSTOMER_COUNT)
+    Page<ShopCustomerDTO> findShopCustomersByRecency(@Param("shopId") Long shopId, Pageable pageable);
 }
@@ -5,6 +5,7 @@ package org.example.repository;
 
 import org.example.model.Shop;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -31,4 +32,9 @@ public interface ShopRepository extends JpaRepository<Shop, Long> {
     
     @Query("SELECT s FROM Shop s WHERE s.shopName LIKE %:name% AND s.isApproved = true AND s.isActive = true")
     List<Shop> findByShopNameContainingAndApproved(@Param("name") String name);
+    
+    // Native so the joined users table is not touched by the bulk update
+    @Modifying
+    @Query(value = "UPDATE shops SET total_orders = COALESCE(total_orders, 0) + :delta WHERE id = :shopId", nativeQuery = true)
+    int incrementTotalOrders(@Param("shopId") Long shopId, @Param("delta") int delta);
 }
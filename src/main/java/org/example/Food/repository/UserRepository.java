@@ -2,7 +2,9 @@ package org.example.repository;
 
 import org.example.model.User;
 import org.example.model.UserRole;
+import org.example.security.AuthenticatedUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,8 +18,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.email = :email")
     Optional<User> findByEmail(@Param("email") String email);
     
+    // Principal lookup for API requests; reads only the columns the cache keeps
+    @Query("SELECT new org.example.security.AuthenticatedUser(u.id, u.email, u.name, u.role, u.isActive) FROM User u WHERE u.email = :email")
+    Optional<AuthenticatedUser> findAuthenticatedUserByEmail(@Param("email") String email);
+    
     boolean existsByEmail(String email);
     
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
+    
     List<User> findByRole(UserRole role);
     
     List<User> findByIsActive(Boolean isActive);
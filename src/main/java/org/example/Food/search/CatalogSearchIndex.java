@@ -0,0 +1,272 @@
+package org.example.search;
+
+// Member: Arun - Shop & Menu Management
+// Search index over available foods (name, category, description) and approved, active
+// shops (shop name, city, description), plus the bitmap facet index used by the catalog
+// query endpoint. Built from the database at startup, kept current by FoodService /
+// ShopService after their transaction commits, and rebuilt periodically so rating and
+// order-count ranking signals stay fresh.
+// Related database tables: shop and food tables
+
+import org.example.model.Food;
+import org.example.model.Shop;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+@Component
+public class CatalogSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(CatalogSearchIndex.class);
+
+    private static final String FOOD_SQL =
+            "SELECT id, shop_id, name, description, category, price, rating, total_orders, is_available FROM foods";
+    private static final String SHOP_SQL =
+            "SELECT s.id, s.shop_name, s.description, s.city, s.rating, s.total_orders, s.is_approved, u.is_active " +
+            "FROM shops s JOIN users u ON u.id = s.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final boolean enabled;
+    private final long[] priceBucketsCents;
+
+    private volatile Indexes indexes;
+    private volatile boolean ready;
+
+    // Changes committed while a rebuild is loading; replayed onto the new index before it is swapped in
+    private List<Consumer<Indexes>> pendingDuringRebuild;
+    // One rebuild at a time: startup, the schedule and the admin endpoint can all trigger one
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private static final class Indexes {
+        private final TextIndex foods = new TextIndex();
+        private final TextIndex shops = new TextIndex();
+        private final FoodFacetIndex facets;
+
+        private Indexes(long[] priceBucketsCents) {
+            this.facets = new FoodFacetIndex(priceBucketsCents);
+        }
+    }
+
+    public CatalogSearchIndex(@Value("${app.search.enabled:true}") boolean enabled,
+                              @Value("${app.catalog.price-buckets:5,10,15,20}") BigDecimal[] priceBuckets) {
+        this.enabled = enabled;
+        this.priceBucketsCents = new long[priceBuckets.length];
+        for (int i = 0; i < priceBuckets.length; i++) {
+            priceBucketsCents[i] = FoodFacetIndex.toCents(priceBuckets[i]);
+        }
+        this.indexes = new Indexes(priceBucketsCents);
+    }
+
+    // False until the first build completes; callers fall back to the database meanwhile
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public List<Long> searchFoods(String query, int limit) {
+        return indexes.foods.search(query, limit);
+    }
+
+    public List<Long> searchShops(String query, int limit) {
+        return indexes.shops.search(query, limit);
+    }
+
+    // Faceted food query; a text query is resolved through the food text index first
+    public FoodFacetIndex.Result queryFoods(String text, FoodFacetIndex.Query query) {
+        Indexes current = indexes;
+        if (text != null && !text.isBlank()) {
+            query.textMatches(current.foods.search(text, Integer.MAX_VALUE));
+        }
+        return current.facets.query(query);
+    }
+
+    public SortedPriceIndex.Page priceRange(BigDecimal min, BigDecimal max, boolean descending, int page, int size) {
+        return indexes.facets.priceRange(min, max, descending, page, size);
+    }
+
+    public void indexFood(Food food) {
+        boolean searchable = Boolean.TRUE.equals(food.getIsAvailable());
+        TextIndex.Document doc = foodDocument(food.getId(), food.getName(), food.getDescription(),
+                food.getCategory(), food.getRating(), food.getTotalOrders());
+        FoodFacetIndex.FoodEntry entry = new FoodFacetIndex.FoodEntry(food.getId(), food.getShop().getId(),
+                food.getCategory(), food.getPrice(), food.getRating(), food.getTotalOrders(), food.getIsAvailable());
+        afterCommit(ix -> {
+            if (searchable) {
+                ix.foods.put(doc);
+            } else {
+                ix.foods.remove(doc.getId());
+            }
+            ix.facets.put(entry);
+        });
+    }
+
+    public void removeFood(Long foodId) {
+        afterCommit(ix -> {
+            ix.foods.remove(foodId);
+            ix.facets.remove(foodId);
+        });
+    }
+
+    // Also used when a shop is rejected or deactivated: it drops out of search but stays known to the facets
+    public void indexShop(Shop shop) {
+        boolean visible = Boolean.TRUE.equals(shop.getIsApproved()) && Boolean.TRUE.equals(shop.getIsActive());
+        Long shopId = shop.getId();
+        String city = shop.getCity();
+        TextIndex.Document doc = shopDocument(shopId, shop.getShopName(), shop.getDescription(),
+                city, shop.getRating(), shop.getTotalOrders());
+        afterCommit(ix -> {
+            if (visible) {
+                ix.shops.put(doc);
+            } else {
+                ix.shops.remove(shopId);
+            }
+            ix.facets.putShop(shopId, city, visible);
+        });
+    }
+
+    // The shop and its foods were deleted
+    public void removeShop(Long shopId) {
+        afterCommit(ix -> {
+            ix.shops.remove(shopId);
+            ix.facets.removeShop(shopId);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.search.rebuild-interval-ms:600000}",
+               fixedDelayString = "${app.search.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        tryRebuild();
+    }
+
+    // False when another rebuild is already running; that one is left to finish and this call does nothing
+    public boolean tryRebuild() {
+        if (!enabled) {
+            return true;
+        }
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.info("Search index rebuild already in progress, skipping");
+            return false;
+        }
+        try {
+            load();
+        } finally {
+            rebuilding.set(false);
+        }
+        return true;
+    }
+
+    private void load() {
+        synchronized (this) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        Indexes rebuilt = new Indexes(priceBucketsCents);
+        try {
+            // Shops first so foods pick up their shop's city and visibility
+            jdbcTemplate.query(SHOP_SQL, rs -> {
+                long id = rs.getLong("id");
+                boolean visible = rs.getBoolean("is_approved") && rs.getBoolean("is_active");
+                if (visible) {
+                    rebuilt.shops.put(shopDocument(id, rs.getString("shop_name"), rs.getString("description"),
+                            rs.getString("city"), rs.getBigDecimal("rating"), rs.getInt("total_orders")));
+                }
+                rebuilt.facets.putShop(id, rs.getString("city"), visible);
+            });
+            jdbcTemplate.query(FOOD_SQL, rs -> {
+                long id = rs.getLong("id");
+                boolean available = rs.getBoolean("is_available");
+                if (available) {
+                    rebuilt.foods.put(foodDocument(id, rs.getString("name"), rs.getString("description"),
+                            rs.getString("category"), rs.getBigDecimal("rating"), rs.getInt("total_orders")));
+                }
+                rebuilt.facets.put(new FoodFacetIndex.FoodEntry(id, rs.getLong("shop_id"), rs.getString("category"),
+                        rs.getBigDecimal("price"), rs.getBigDecimal("rating"), rs.getInt("total_orders"), available));
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+            log.error("Search index rebuild failed, keeping the previous index", e);
+            return;
+        }
+        synchronized (this) {
+            pendingDuringRebuild.forEach(change -> change.accept(rebuilt));
+            pendingDuringRebuild = null;
+            indexes = rebuilt;
+            ready = true;
+        }
+        log.info("Search index rebuilt ({} searchable foods, {} shops, {} foods in facets)",
+                rebuilt.foods.size(), rebuilt.shops.size(), rebuilt.facets.size());
+    }
+
+    public Map<String, Object> stats() {
+        Indexes current = indexes;
+        return Map.of(
+            "ready", isReady(),
+            "foods", current.foods.size(),
+            "foodTerms", current.foods.vocabularySize(),
+            "shops", current.shops.size(),
+            "shopTerms", current.shops.vocabularySize(),
+            "facetFoods", current.facets.size()
+        );
+    }
+
+    private static TextIndex.Document foodDocument(Long id, String name, String description, String category,
+                                                   BigDecimal rating, Integer totalOrders) {
+        return new TextIndex.Document(id, rating != null ? rating.doubleValue() : 0, totalOrders != null ? totalOrders : 0)
+                .field(name, 3.0f)
+                .field(category, 2.0f)
+                .field(description, 1.0f);
+    }
+
+    private static TextIndex.Document shopDocument(Long id, String shopName, String description, String city,
+                                                   BigDecimal rating, Integer totalOrders) {
+        return new TextIndex.Document(id, rating != null ? rating.doubleValue() : 0, totalOrders != null ? totalOrders : 0)
+                .field(shopName, 3.0f)
+                .field(city, 2.0f)
+                .field(description, 1.0f);
+    }
+
+    private void afterCommit(Consumer<Indexes> change) {
+        if (!enabled) {
+            return;
+        }
+        Runnable apply = () -> {
+            synchronized (this) {
+                change.accept(indexes);
+                if (pendingDuringRebuild != null) {
+                    pendingDuringRebuild.add(change);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package org.example.search;
+
+// Bitmap indexes over a dense food ordinal for faceted browsing.
+// Each food gets an ordinal; categories, cities, shops and availability are BitSets over
+// those ordinals, and price / rating / order count live in parallel primitive arrays.
+// Filters are BitSet intersections; facet counts are computed "disjunctively" (the category
+// facet ignores the category filter, the price facet ignores the price filter) so the UI
+// can show how many results each alternative would give.
+// Available foods are also kept in a SortedPriceIndex for price-range paging; it is rebuilt
+// lazily on the first range query after a change.
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class FoodFacetIndex {
+
+    public enum Sort {
+        RELEVANCE,
+        RATING,
+        POPULAR,
+        PRICE_ASC,
+        PRICE_DESC
+    }
+
+    // Snapshot of the food columns the index needs
+    public record FoodEntry(Long id, Long shopId, String category, BigDecimal price,
+                            BigDecimal rating, Integer totalOrders, Boolean available) {
+    }
+
+    public static final class Query {
+        private final List<String> categories = new ArrayList<>();
+        private Long minPriceCents;
+        private Long maxPriceCents;
+        private String city;
+        private Boolean available = Boolean.TRUE;
+        private double minRating;
+        private List<Long> textMatches;
+        private Sort sort = Sort.RATING;
+        private int page;
+        private int size = 20;
+
+        public Query categories(Collection<String> values) {
+            if (values != null) {
+                values.stream().filter(v -> v != null && !v.isBlank()).map(FoodFacetIndex::key).forEach(categories::add);
+            }
+            return this;
+        }
+
+        public Query priceRange(BigDecimal min, BigDecimal max) {
+            this.minPriceCents = min != null ? toCents(min) : null;
+            this.maxPriceCents = max != null ? toCents(max) : null;
+            return this;
+        }
+
+        public Query city(String value) {
+            this.city = value != null && !value.isBlank() ? key(value) : null;
+            return this;
+        }
+
+        // null means "available and unavailable"
+        public Query available(Boolean value) {
+            this.available = value;
+            return this;
+        }
+
+        public Query minRating(BigDecimal value) {
+            this.minRating = value != null ? value.doubleValue() : 0;
+            return this;
+        }
+
+        // Ids matching the text query, best first; null when there is no text query
+        public Query textMatches(List<Long> ids) {
+            this.textMatches = ids;
+            return this;
+        }
+
+        public Query sort(Sort value) {
+            this.sort = value;
+            return this;
+        }
+
+        public Query page(int page, int size) {
+            this.page = page;
+            this.size = size;
+            return this;
+        }
+    }
+
+    public record Result(List<Long> ids, int total, Map<String, Integer> categoryCounts,
+                         Map<String, Integer> priceCounts) {
+    }
+
+    private record ShopState(String city, boolean visible) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long[] priceBuckets;
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+    private int nextOrdinal;
+    private long[] ids = new long[256];
+    private long[] shopIds = new long[256];
+    private long[] priceCents = new long[256];
+    private double[] ratings = new double[256];
+    private long[] totalOrders = new long[256];
+    private String[] categoryKeys = new String[256];
+
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private final BitSet visibleShop = new BitSet();
+    private final Map<String, BitSet> byCategory = new HashMap<>();
+    private final Map<String, String> categoryNames = new HashMap<>();
+    private final Map<String, BitSet> byCity = new HashMap<>();
+    private final Map<Long, BitSet> byShop = new HashMap<>();
+    private final Map<Long, ShopState> shops = new HashMap<>();
+
+    // null when a write invalidated it; rebuilt under priceIndexMonitor by the next reader
+    private volatile SortedPriceIndex priceIndex;
+    private final Object priceIndexMonitor = new Object();
+
+    // Bucket boundaries in cents, ascending: {500, 1000} gives 0-5, 5-10 and 10+
+    public FoodFacetIndex(long[] priceBucketsCents) {
+        this.priceBuckets = priceBucketsCents.clone();
+        Arrays.sort(this.priceBuckets);
+    }
+
+    public void putShop(Long shopId, String city, boolean visible) {
+        lock.writeLock().lock();
+        try {
+            ShopState previous = shops.put(shopId, new ShopState(city != null ? key(city) : null, visible));
+            BitSet foods = byShop.get(shopId);
+            if (foods == null) {
+                return;
+            }
+            if (previous != null && previous.city() != null) {
+                BitSet cityBits = byCity.get(previous.city());
+                if (cityBits != null) {
+                    cityBits.andNot(foods);
+                }
+            }
+            for (int ord = foods.nextSetBit(0); ord >= 0; ord = foods.nextSetBit(ord + 1)) {
+                applyShop(ord, shopId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The shop was deleted, and its foods with it
+    public void removeShop(Long shopId) {
+        lock.writeLock().lock();
+        try {
+            BitSet foods = byShop.get(shopId);
+            if (foods != null) {
+                for (int ord = foods.nextSetBit(0); ord >= 0; ord = foods.nextSetBit(ord + 1)) {
+                    removeOrdinal(ord);
+                }
+            }
+            byShop.remove(shopId);
+            shops.remove(shopId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(FoodEntry entry) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinals.get(entry.id());
+            if (existing != null) {
+                removeOrdinal(existing);
+            }
+            int ord = !freeOrdinals.isEmpty() ? freeOrdinals.pop() : nextOrdinal++;
+            ensureCapacity(ord);
+            ordinals.put(entry.id(), ord);
+            ids[ord] = entry.id();
+            shopIds[ord] = entry.shopId();
+            priceCents[ord] = entry.price() != null ? toCents(entry.price()) : 0L;
+            ratings[ord] = entry.rating() != null ? entry.rating().doubleValue() : 0;
+            totalOrders[ord] = entry.totalOrders() != null ? entry.totalOrders() : 0;
+            live.set(ord);
+            available.set(ord, Boolean.TRUE.equals(entry.available()));
+            priceIndex = null;
+            if (entry.category() != null && !entry.category().isBlank()) {
+                String categoryKey = key(entry.category());
+                categoryKeys[ord] = categoryKey;
+                categoryNames.putIfAbsent(categoryKey, entry.category().trim());
+                byCategory.computeIfAbsent(categoryKey, k -> new BitSet()).set(ord);
+            }
+            byShop.computeIfAbsent(entry.shopId(), k -> new BitSet()).set(ord);
+            applyShop(ord, entry.shopId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long foodId) {
+        lock.writeLock().lock();
+        try {
+            Integer ord = ordinals.get(foodId);
+            if (ord != null) {
+                removeOrdinal(ord);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Available foods priced within [min, max], cheapest first (or most expensive first)
+    public SortedPriceIndex.Page priceRange(BigDecimal min, BigDecimal max, boolean descending, int page, int size) {
+        long minCents = min != null ? toCents(min) : Long.MIN_VALUE;
+        long maxCents = max != null ? toCents(max) : Long.MAX_VALUE;
+        lock.readLock().lock();
+        try {
+            SortedPriceIndex index = priceIndex;
+            if (index == null) {
+                synchronized (priceIndexMonitor) {
+                    index = priceIndex;
+                    if (index == null) {
+                        index = buildPriceIndex();
+                        priceIndex = index;
+                    }
+                }
+            }
+            return index.range(minCents, maxCents, descending, (int) Math.min((long) page * size, Integer.MAX_VALUE), size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Called with the read lock held, so no writer can change the arrays meanwhile
+    private SortedPriceIndex buildPriceIndex() {
+        BitSet priced = (BitSet) live.clone();
+        priced.and(available);
+        Integer[] order = new Integer[priced.cardinality()];
+        int n = 0;
+        for (int ord = priced.nextSetBit(0); ord >= 0; ord = priced.nextSetBit(ord + 1)) {
+            order[n++] = ord;
+        }
+        Arrays.sort(order, Comparator.comparingLong((Integer ord) -> priceCents[ord]).thenComparingLong(ord -> ids[ord]));
+        long[] cents = new long[n];
+        long[] sortedIds = new long[n];
+        for (int i = 0; i < n; i++) {
+            cents[i] = priceCents[order[i]];
+            sortedIds[i] = ids[order[i]];
+        }
+        return new SortedPriceIndex(cents, sortedIds);
+    }
+
+    public Result query(Query query) {
+        lock.readLock().lock();
+        try {
+            // Only foods of approved, active shops are browsable
+            BitSet common = (BitSet) live.clone();
+            common.and(visibleShop);
+            if (query.available != null) {
+                if (query.available) {
+                    common.and(available);
+                } else {
+                    common.andNot(available);
+                }
+            }
+            if (query.city != null) {
+                common.and(byCity.getOrDefault(query.city, new BitSet()));
+            }
+            Map<Long, Integer> textRank = null;
+            if (query.textMatches != null) {
+                textRank = new HashMap<>();
+                BitSet textBits = new BitSet();
+                for (Long id : query.textMatches) {
+                    Integer ord = ordinals.get(id);
+                    if (ord != null) {
+                        textBits.set(ord);
+                        textRank.put(id, textRank.size());
+                    }
+                }
+                common.and(textBits);
+            }
+            if (query.minRating > 0) {
+                filter(common, ord -> ratings[ord] >= query.minRating);
+            }
+
+            BitSet withoutCategory = (BitSet) common.clone();
+            if (query.minPriceCents != null || query.maxPriceCents != null) {
+                long min = query.minPriceCents != null ? query.minPriceCents : Long.MIN_VALUE;
+                long max = query.maxPriceCents != null ? query.maxPriceCents : Long.MAX_VALUE;
+                filter(withoutCategory, ord -> priceCents[ord] >= min && priceCents[ord] <= max);
+            }
+            BitSet withoutPrice = (BitSet) common.clone();
+            BitSet result = (BitSet) withoutCategory.clone();
+            if (!query.categories.isEmpty()) {
+                BitSet categoryBits = new BitSet();
+                for (String category : query.categories) {
+                    BitSet bits = byCategory.get(category);
+                    if (bits != null) {
+                        categoryBits.or(bits);
+                    }
+                }
+                withoutPrice.and(categoryBits);
+                result.and(categoryBits);
+            }
+
+            Map<String, Integer> categoryCounts = new TreeMap<>();
+            byCategory.forEach((categoryKey, bits) -> {
+                int count = countIntersection(withoutCategory, bits);
+                if (count > 0) {
+                    categoryCounts.put(categoryNames.get(categoryKey), count);
+                }
+            });
+
+            int[] bucketCounts = new int[priceBuckets.length + 1];
+            for (int ord = withoutPrice.nextSetBit(0); ord >= 0; ord = withoutPrice.nextSetBit(ord + 1)) {
+                bucketCounts[bucketOf(priceCents[ord])]++;
+            }
+            Map<String, Integer> priceCounts = new LinkedHashMap<>();
+            for (int i = 0; i < bucketCounts.length; i++) {
+                priceCounts.put(bucketLabel(i), bucketCounts[i]);
+            }
+
+            int total = result.cardinality();
+            List<Long> pageIds = sortAndPage(result, query, textRank);
+            return new Result(pageIds, total, categoryCounts, priceCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> sortAndPage(BitSet result, Query query, Map<Long, Integer> textRank) {
+        List<Integer> matched = new ArrayList<>(result.cardinality());
+        for (int ord = result.nextSetBit(0); ord >= 0; ord = result.nextSetBit(ord + 1)) {
+            matched.add(ord);
+        }
+        Comparator<Integer> order = switch (query.sort) {
+            case RELEVANCE -> textRank != null
+                    ? Comparator.comparingInt(ord -> textRank.get(ids[ord]))
+                    : Comparator.comparingDouble((Integer ord) -> ratings[ord]).reversed();
+            case RATING -> Comparator.comparingDouble((Integer ord) -> ratings[ord]).reversed();
+            case POPULAR -> Comparator.comparingLong((Integer ord) -> totalOrders[ord]).reversed();
+            case PRICE_ASC -> Comparator.comparingLong(ord -> priceCents[ord]);
+            case PRICE_DESC -> Comparator.comparingLong((Integer ord) -> priceCents[ord]).reversed();
+        };
+        matched.sort(order.thenComparingLong(ord -> ids[ord]));
+
+        int from = (int) Math.min((long) query.page * query.size, matched.size());
+        int to = Math.min(from + query.size, matched.size());
+        List<Long> pageIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add(ids[matched.get(i)]);
+        }
+        return pageIds;
+    }
+
+    private void applyShop(int ord, Long shopId) {
+        ShopState shop = shops.get(shopId);
+        visibleShop.set(ord, shop != null && shop.visible());
+        if (shop != null && shop.city() != null) {
+            byCity.computeIfAbsent(shop.city(), k -> new BitSet()).set(ord);
+        }
+    }
+
+    private void removeOrdinal(int ord) {
+        ordinals.remove(ids[ord]);
+        live.clear(ord);
+        available.clear(ord);
+        visibleShop.clear(ord);
+        if (categoryKeys[ord] != null) {
+            BitSet bits = byCategory.get(categoryKeys[ord]);
+            if (bits != null) {
+                bits.clear(ord);
+                if (bits.isEmpty()) {
+                    byCategory.remove(categoryKeys[ord]);
+                    categoryNames.remove(categoryKeys[ord]);
+                }
+            }
+            categoryKeys[ord] = null;
+        }
+        ShopState shop = shops.get(shopIds[ord]);
+        if (shop != null && shop.city() != null) {
+            BitSet cityBits = byCity.get(shop.city());
+            if (cityBits != null) {
+                cityBits.clear(ord);
+            }
+        }
+        BitSet shopBits = byShop.get(shopIds[ord]);
+        if (shopBits != null) {
+            shopBits.clear(ord);
+        }
+        freeOrdinals.push(ord);
+        priceIndex = null;
+    }
+
+    private void ensureCapacity(int ord) {
+        if (ord < ids.length) {
+            return;
+        }
+        int capacity = Math.max(ids.length * 2, ord + 1);
+        ids = Arrays.copyOf(ids, capacity);
+        shopIds = Arrays.copyOf(shopIds, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        ratings = Arrays.copyOf(ratings, capacity);
+        totalOrders = Arrays.copyOf(totalOrders, capacity);
+        categoryKeys = Arrays.copyOf(categoryKeys, capacity);
+    }
+
+    private interface OrdinalPredicate {
+        boolean test(int ord);
+    }
+
+    private static void filter(BitSet bits, OrdinalPredicate predicate) {
+        for (int ord = bits.nextSetBit(0); ord >= 0; ord = bits.nextSetBit(ord + 1)) {
+            if (!predicate.test(ord)) {
+                bits.clear(ord);
+            }
+        }
+    }
+
+    private static int countIntersection(BitSet a, BitSet b) {
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+
+    private int bucketOf(long cents) {
+        int i = 0;
+        while (i < priceBuckets.length && cents >= priceBuckets[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private String bucketLabel(int bucket) {
+        String lower = bucket == 0 ? "0" : formatCents(priceBuckets[bucket - 1]);
+        return bucket == priceBuckets.length ? lower + "+" : lower + "-" + formatCents(priceBuckets[bucket]);
+    }
+
+    private static String formatCents(long cents) {
+        return BigDecimal.valueOf(cents, 2).stripTrailingZeros().toPlainString();
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.search;
+
+// Immutable price index: food ids sorted by (price in cents, id) in two parallel long arrays.
+// A range is located with two binary searches, so counting and paging a price range
+// (ascending or descending) costs O(log n + page size).
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SortedPriceIndex {
+
+    public record Page(List<Long> ids, int total) {
+    }
+
+    private final long[] cents;
+    private final long[] ids;
+
+    // Arrays must already be sorted by (cents, id)
+    SortedPriceIndex(long[] cents, long[] ids) {
+        this.cents = cents;
+        this.ids = ids;
+    }
+
+    public int size() {
+        return cents.length;
+    }
+
+    public Page range(long minCents, long maxCents, boolean descending, int offset, int limit) {
+        int from = lowerBound(minCents);
+        int to = maxCents == Long.MAX_VALUE ? cents.length : lowerBound(maxCents + 1);
+        int total = Math.max(0, to - from);
+        if (offset >= total || limit <= 0) {
+            return new Page(List.of(), total);
+        }
+        int count = Math.min(limit, total - offset);
+        List<Long> page = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            page.add(descending ? ids[to - 1 - offset - i] : ids[from + offset + i]);
+        }
+        return new Page(page, total);
+    }
+
+    // First position whose price is >= value
+    private int lowerBound(long value) {
+        int lo = 0;
+        int hi = cents.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cents[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,291 @@
+package org.example.search;
+
+// In-memory inverted index used for search-as-you-type.
+// Terms map to weighted postings (document id -> field weight); a trigram index over the
+// vocabulary finds candidate terms for typo-tolerant matching.
+// Queries match every term (AND) as an exact term, a prefix or a close misspelling, and
+// hits are ranked by text score boosted by the document's rating and order count.
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TextIndex {
+
+    private static final float EXACT_MATCH = 1.0f;
+    private static final float PREFIX_MATCH = 0.8f;
+    private static final float FUZZY_MATCH = 0.5f;
+
+    // Upper bound on vocabulary terms expanded for one prefix, keeps single-letter queries cheap
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public static final class Document {
+        private final Long id;
+        private final double rating;
+        private final long totalOrders;
+        private final Map<String, Float> terms = new HashMap<>();
+
+        public Document(Long id, double rating, long totalOrders) {
+            this.id = id;
+            this.rating = rating;
+            this.totalOrders = totalOrders;
+        }
+
+        // A term that appears in several fields keeps its highest field weight
+        public Document field(String text, float weight) {
+            for (String term : tokenize(text)) {
+                terms.merge(term, weight, Math::max);
+            }
+            return this;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        private double boost() {
+            return 1.0 + 0.1 * rating + 0.05 * Math.log1p(totalOrders);
+        }
+    }
+
+    // Adds the document or replaces the previous version with the same id
+    public void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(document.id);
+            documents.put(document.id, document);
+            document.terms.forEach((term, weight) -> {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting == null) {
+                    posting = new HashMap<>();
+                    postings.put(term, posting);
+                    for (String gram : grams(term)) {
+                        trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+                    }
+                }
+                posting.put(document.id, weight);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int vocabularySize() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Returns matching document ids, best first; an empty query matches nothing
+    public List<Long> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Float> termScores = matchTerm(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Float> combined = new HashMap<>();
+                    for (Map.Entry<Long, Float> e : scores.entrySet()) {
+                        Float s = termScores.get(e.getKey());
+                        if (s != null) {
+                            combined.put(e.getKey(), e.getValue() + s);
+                        }
+                    }
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.size());
+            for (Map.Entry<Long, Float> e : scores.entrySet()) {
+                ranked.add(Map.entry(e.getKey(), e.getValue() * documents.get(e.getKey()).boost()));
+            }
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            return ranked.stream().limit(limit).map(Map.Entry::getKey).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best score per document for one query term across exact, prefix and fuzzy matches
+    private Map<Long, Float> matchTerm(String queryTerm) {
+        Map<Long, Float> scores = new HashMap<>();
+
+        Map<Long, Float> exact = postings.get(queryTerm);
+        if (exact != null) {
+            collect(scores, exact, EXACT_MATCH);
+        }
+
+        int expanded = 0;
+        for (Map.Entry<String, Map<Long, Float>> e
+                : postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            if (++expanded > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            collect(scores, e.getValue(), PREFIX_MATCH);
+        }
+
+        if (queryTerm.length() >= 3) {
+            int maxEdits = queryTerm.length() <= 5 ? 1 : 2;
+            for (String candidate : fuzzyCandidates(queryTerm)) {
+                if (!candidate.equals(queryTerm) && withinEditDistance(queryTerm, candidate, maxEdits)) {
+                    collect(scores, postings.get(candidate), FUZZY_MATCH);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static void collect(Map<Long, Float> scores, Map<Long, Float> posting, float factor) {
+        posting.forEach((id, weight) -> scores.merge(id, weight * factor, Math::max));
+    }
+
+    // Vocabulary terms sharing enough trigrams with the query term to be worth an edit-distance check
+    private Set<String> fuzzyCandidates(String queryTerm) {
+        List<String> queryGrams = grams(queryTerm);
+        Map<String, Integer> overlap = new HashMap<>();
+        for (String gram : queryGrams) {
+            Set<String> terms = trigrams.get(gram);
+            if (terms != null) {
+                for (String term : terms) {
+                    overlap.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+        int required = Math.max(1, queryGrams.size() / 3);
+        Set<String> candidates = new HashSet<>();
+        overlap.forEach((term, count) -> {
+            if (count >= required && Math.abs(term.length() - queryTerm.length()) <= 2) {
+                candidates.add(term);
+            }
+        });
+        return candidates;
+    }
+
+    private void removeInternal(Long id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms.keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+                for (String gram : grams(term)) {
+                    Set<String> terms = trigrams.get(gram);
+                    if (terms != null) {
+                        terms.remove(term);
+                        if (terms.isEmpty()) {
+                            trigrams.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Lower-cases, strips accents and splits on anything that is not a letter or digit
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Padded trigrams, so "pizza" -> "^pi", "piz", "izz", "zza", "za$"
+    private static List<String> grams(String term) {
+        String padded = "^" + term + "$";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Optimal string alignment distance (adjacent transpositions count as one edit), bounded by maxEdits
+    static boolean withinEditDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return false;
+        }
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int v = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    v = Math.min(v, d[i - 2][j - 2] + 1);
+                }
+                d[i][j] = v;
+                rowMin = Math.min(rowMin, v);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+        }
+        return d[a.length()][b.length()] <= maxEdits;
+    }
+}
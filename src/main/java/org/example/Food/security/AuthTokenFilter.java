@@ -0,0 +1,80 @@
+package org.example.security;
+
+// Member: Heshan - User authentication
+// Stateless mode: authenticates each request from the signed token in the
+// "Authorization: Bearer" header or the AUTH_TOKEN cookie set at login.
+// A valid signature only proves who the token was issued to: the account is then looked up through the
+// short-TTL AuthenticatedUserCache, and a user that was deleted, deactivated (or rejected) or changed role
+// since the token was issued is not authenticated. The cache entry is dropped when the account changes.
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+public class AuthTokenFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "AUTH_TOKEN";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AuthTokenService authTokenService;
+    private final AuthenticatedUserCache authenticatedUserCache;
+
+    public AuthTokenFilter(AuthTokenService authTokenService, AuthenticatedUserCache authenticatedUserCache) {
+        this.authTokenService = authTokenService;
+        this.authenticatedUserCache = authenticatedUserCache;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        AuthenticatedUser user = currentAccount(authTokenService.verify(resolveToken(request)));
+        if (user != null) {
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    user, null, List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(authentication);
+            SecurityContextHolder.setContext(context);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // The account as it is now, or null when it no longer matches the token
+    private AuthenticatedUser currentAccount(AuthenticatedUser fromToken) {
+        if (fromToken == null) {
+            return null;
+        }
+        AuthenticatedUser current = authenticatedUserCache.get(fromToken.getEmail());
+        if (current == null || !current.isActive() || !current.getId().equals(fromToken.getId())
+                || current.getRole() != fromToken.getRole()) {
+            return null;
+        }
+        return current;
+    }
+
+    private static String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length()).trim();
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+}
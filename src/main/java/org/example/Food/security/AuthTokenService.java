@@ -0,0 +1,111 @@
+package org.example.security;
+
+// Member: Heshan - User authentication
+// Signed bearer tokens for the stateless auth mode (app.auth.mode=stateless).
+// Format: base64url("userId|role|expiresAtEpochSeconds|email") + "." + base64url(HMAC-SHA256).
+// Verification only needs the shared secret, so any node can check a token without a session;
+// AuthTokenFilter then checks that the account is still active through the principal cache.
+
+import org.example.model.UserRole;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+@Component
+public class AuthTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    // HMAC-SHA256 key length; shorter secrets are rejected in stateless mode
+    static final int MIN_SECRET_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final String mode;
+    private final long ttlMinutes;
+    private final Clock clock;
+    private final SecretKeySpec key;
+
+    // The secret must be identical on every node behind the load balancer
+    public AuthTokenService(@Value("${app.auth.mode:session}") String mode,
+                            @Value("${app.auth.token-secret:}") String secret,
+                            @Value("${app.auth.token-ttl-minutes:720}") long ttlMinutes) {
+        this(mode, secret, ttlMinutes, Clock.systemUTC());
+    }
+
+    AuthTokenService(String mode, String secret, long ttlMinutes, Clock clock) {
+        this.mode = mode;
+        this.ttlMinutes = ttlMinutes;
+        this.clock = clock;
+        byte[] keyBytes = secret != null ? secret.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (isStateless() && (secret == null || secret.isBlank() || keyBytes.length < MIN_SECRET_BYTES)) {
+            // A per-process key would make tokens fail on every other node and after each restart
+            throw new IllegalStateException("app.auth.mode=stateless requires app.auth.token-secret of at least "
+                    + MIN_SECRET_BYTES + " bytes, identical on every node");
+        }
+        if (secret == null || secret.isBlank()) {
+            // Session mode does not issue tokens; a random key keeps the service usable without configuration
+            keyBytes = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(keyBytes);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    public boolean isStateless() {
+        return "stateless".equalsIgnoreCase(mode);
+    }
+
+    public Duration getTtl() {
+        return Duration.ofMinutes(ttlMinutes);
+    }
+
+    public String issue(AuthenticatedUser user) {
+        long expiresAt = clock.instant().plus(getTtl()).getEpochSecond();
+        String payload = user.getId() + "|" + user.getRole().name() + "|" + expiresAt + "|" + user.getEmail();
+        String encoded = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encoded + "." + ENCODER.encodeToString(sign(encoded));
+    }
+
+    // Returns null for malformed, forged or expired tokens
+    public AuthenticatedUser verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        String encoded = token.substring(0, dot);
+        try {
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(encoded))) {
+                return null;
+            }
+            String[] fields = new String(DECODER.decode(encoded), StandardCharsets.UTF_8).split("\\|", 4);
+            if (fields.length != 4 || clock.instant().getEpochSecond() >= Long.parseLong(fields[2])) {
+                return null;
+            }
+            return new AuthenticatedUser(Long.valueOf(fields[0]), fields[3], null, UserRole.valueOf(fields[1]), true);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String data) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign auth token", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.security;
+
+// Member: Heshan - User authentication
+// Lightweight view of the logged-in user (id, role, active flag) resolved from the session's email.
+// Injected into controller methods by AuthenticatedUserArgumentResolver.
+
+import org.example.model.User;
+import org.example.model.UserRole;
+
+public class AuthenticatedUser {
+    private final Long id;
+    private final String email;
+    private final String name;
+    private final UserRole role;
+    private final boolean active;
+
+    public AuthenticatedUser(Long id, String email, String name, UserRole role, Boolean active) {
+        this.id = id;
+        this.email = email;
+        this.name = name;
+        this.role = role;
+        this.active = Boolean.TRUE.equals(active);
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getName(), user.getRole(), user.getIsActive());
+    }
+
+    public Long getId() { return id; }
+
+    public String getEmail() { return email; }
+
+    public String getName() { return name; }
+
+    public UserRole getRole() { return role; }
+
+    public boolean isActive() { return active; }
+
+    // Authentication.getName() falls back to toString() for this principal type
+    @Override
+    public String toString() { return email; }
+}
@@ -0,0 +1,59 @@
+package org.example.security;
+
+// Member: Heshan - User authentication
+// Resolves AuthenticatedUser controller parameters from the security context.
+// The result is kept on the request so repeated resolution within a request is free.
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+@Component
+public class AuthenticatedUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String REQUEST_ATTRIBUTE = AuthenticatedUser.class.getName();
+
+    @Autowired
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @Override
+    public boolean supportsParameter(@NonNull MethodParameter parameter) {
+        return AuthenticatedUser.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    // Null when the request is anonymous or the account no longer exists
+    @Override
+    public Object resolveArgument(@NonNull MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  @NonNull NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        if (request != null && request.getAttribute(REQUEST_ATTRIBUTE) != null) {
+            return request.getAttribute(REQUEST_ATTRIBUTE);
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+
+        // Stateless mode: the token filter already put the principal in the context
+        if (authentication.getPrincipal() instanceof AuthenticatedUser fromToken) {
+            return fromToken;
+        }
+
+        AuthenticatedUser user = authenticatedUserCache.get(authentication.getName());
+        if (request != null && user != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, user);
+        }
+        return user;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.security;
+
+// Member: Heshan - User authentication
+// Short-TTL cache of email -> AuthenticatedUser so API calls do not re-query users on every request.
+// Entries are dropped after commit whenever a UserAccountChangedEvent is published.
+
+import org.example.cache.BoundedTtlCache;
+import org.example.model.User;
+import org.example.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Component
+public class AuthenticatedUserCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final BoundedTtlCache<String, AuthenticatedUser> cache;
+
+    public AuthenticatedUserCache(@Value("${app.principal-cache.max-size:10000}") int maxSize,
+                                  @Value("${app.principal-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.cache = new BoundedTtlCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    // Returns null when no user has this email
+    public AuthenticatedUser get(String email) {
+        return cache.get(email, () -> userRepository.findAuthenticatedUserByEmail(email).orElse(null));
+    }
+
+    // Seeds the cache from a freshly authenticated user (the login already loaded it)
+    public void remember(User user) {
+        cache.get(user.getEmail(), () -> AuthenticatedUser.from(user));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        cache.invalidate(event.getEmail());
+    }
+
+    public Map<String, Object> stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.security;
+
+// Member: Heshan - User authentication
+// Application PasswordEncoder. The algorithm and its cost are configured under app.password.*:
+//   bcrypt - app.password.bcrypt.cost (4-31)
+//   argon2 - app.password.argon2.* memory (KiB), iterations and parallelism; needs BouncyCastle at runtime
+// New hashes are stored with an {id} prefix. Older hashes (unprefixed bcrypt from before this
+// change, or hashes made with weaker settings) are reported by upgradeEncoding, and
+// DaoAuthenticationProvider then rehashes them on the next successful login.
+// Password checks run on a small bounded pool so a login burst cannot occupy every request
+// thread with bcrypt/argon2 work; when the pool and its queue are full, logins fail fast with
+// PasswordCheckBusyException (answered with 503). encode() runs on the caller's thread: registration
+// and password changes are rare and must not fail because logins are busy.
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class HashingPasswordEncoder implements PasswordEncoder {
+    private static final Logger log = LoggerFactory.getLogger(HashingPasswordEncoder.class);
+
+    private static final String BCRYPT = "bcrypt";
+    private static final String ARGON2 = "argon2";
+
+    @Value("${app.password.algorithm:bcrypt}")
+    private String algorithm;
+
+    @Value("${app.password.bcrypt.cost:10}")
+    private int bcryptCost;
+
+    @Value("${app.password.argon2.salt-length:16}")
+    private int argon2SaltLength;
+
+    @Value("${app.password.argon2.hash-length:32}")
+    private int argon2HashLength;
+
+    @Value("${app.password.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
+    @Value("${app.password.argon2.memory-kib:19456}")
+    private int argon2MemoryKib;
+
+    @Value("${app.password.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    // Defaults to the number of cores: hashing is CPU bound, more threads only add contention
+    @Value("${app.password.executor.threads:0}")
+    private int threads;
+
+    @Value("${app.password.executor.queue-size:200}")
+    private int queueSize;
+
+    @Value("${app.password.executor.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private PasswordEncoder delegate;
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder encodes = new LongAdder();
+    private final LongAdder encodeNanos = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder verifyNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder upgrades = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        Map<String, PasswordEncoder> encoders = new LinkedHashMap<>();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptCost);
+        encoders.put(BCRYPT, bcrypt);
+        boolean argon2Available = ClassUtils.isPresent("org.bouncycastle.crypto.generators.Argon2BytesGenerator",
+                getClass().getClassLoader());
+        if (argon2Available) {
+            encoders.put(ARGON2, new Argon2PasswordEncoder(argon2SaltLength, argon2HashLength,
+                    argon2Parallelism, argon2MemoryKib, argon2Iterations));
+        }
+
+        String idForEncode = algorithm.toLowerCase();
+        if (!encoders.containsKey(idForEncode)) {
+            throw new IllegalStateException(ARGON2.equals(idForEncode)
+                    ? "app.password.algorithm=argon2 needs org.bouncycastle:bcprov on the classpath"
+                    : "Unknown app.password.algorithm: " + algorithm);
+        }
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain bcrypt
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        this.delegate = delegating;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password hashing: {} (bcrypt cost {}), {} threads, queue {}", idForEncode, bcryptCost, poolSize, queueSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        String encoded = delegate.encode(rawPassword);
+        record(encodes, encodeNanos, System.nanoTime() - start);
+        return encoded;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = run(() -> delegate.matches(rawPassword, encodedPassword));
+        record(verifications, verifyNanos, System.nanoTime() - start);
+        return matches;
+    }
+
+    // Cheap (parses the stored hash only), so it runs on the caller's thread
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void recordUpgrade() {
+        upgrades.increment();
+    }
+
+    public Map<String, Object> stats() {
+        long encodeCount = encodes.sum();
+        long verifyCount = verifications.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("algorithm", algorithm.toLowerCase());
+        stats.put("bcryptCost", bcryptCost);
+        stats.put("encodes", encodeCount);
+        stats.put("avgEncodeMs", encodeCount > 0 ? encodeNanos.sum() / encodeCount / 1_000_000.0 : 0.0);
+        stats.put("verifications", verifyCount);
+        stats.put("avgVerifyMs", verifyCount > 0 ? verifyNanos.sum() / verifyCount / 1_000_000.0 : 0.0);
+        stats.put("maxMs", maxNanos.get() / 1_000_000.0);
+        stats.put("rehashedOnLogin", upgrades.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("timeouts", timeouts.sum());
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        return stats;
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordCheckBusyException("Too many login attempts in progress, please try again");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.increment();
+            throw new PasswordCheckBusyException("Password check timed out, please try again");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Password check interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void record(LongAdder count, LongAdder total, long nanos) {
+        count.increment();
+        total.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
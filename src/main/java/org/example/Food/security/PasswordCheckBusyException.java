@@ -0,0 +1,13 @@
+package org.example.security;
+
+// Member: Heshan - User authentication
+// Thrown when the password check pool is saturated or too slow; the login is answered with 503
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+public class PasswordCheckBusyException extends AuthenticationServiceException {
+
+    public PasswordCheckBusyException(String message) {
+        super(message);
+    }
+}
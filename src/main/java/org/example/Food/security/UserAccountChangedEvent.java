@@ -0,0 +1,16 @@
+package org.example.security;
+
+// Member: Heshan - User authentication
+// Published when a user's role or active flag may have changed, so cached principals are dropped
+
+public class UserAccountChangedEvent {
+    private final String email;
+
+    public UserAccountChangedEvent(String email) {
+        this.email = email;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
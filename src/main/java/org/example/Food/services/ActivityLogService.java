@@ -11,9 +11,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -22,21 +25,65 @@ public class ActivityLogService {
     @Autowired
     private ActivityLogRepository activityLogRepository;
     
+    @Autowired
+    private ActivityLogWriter activityLogWriter;
+    
     public void logActivity(String action, String description, User user) {
         ActivityLog activityLog = new ActivityLog(action, description, user);
-        activityLogRepository.save(activityLog);
+        record(activityLog);
     }
     
     public void logActivity(String action, String description, User user, String entityType, Long entityId) {
         ActivityLog activityLog = new ActivityLog(action, description, entityType, entityId, user);
-        activityLogRepository.save(activityLog);
+        record(activityLog);
     }
     
     public void logActivity(String action, String description, User user, String entityType, Long entityId, String ipAddress, String userAgent) {
         ActivityLog activityLog = new ActivityLog(action, description, entityType, entityId, user);
         activityLog.setIpAddress(ipAddress);
         activityLog.setUserAgent(userAgent);
-        activityLogRepository.save(activityLog);
+        record(activityLog);
+    }
+    
+    // Entries produced together (e.g. a bulk order update): one JDBC batch in sync mode,
+    // otherwise queued for the async writer once the caller's transaction commits
+    public void logActivities(List<ActivityLog> activityLogs) {
+        if (activityLogs.isEmpty()) {
+            return;
+        }
+        if (!activityLogWriter.isEnabled()) {
+            activityLogWriter.writeNow(activityLogs);
+            return;
+        }
+        submitAfterCommit(List.copyOf(activityLogs));
+    }
+    
+    // Sync mode: an INSERT in the caller's transaction, so it commits or rolls back with the logged work
+    private void record(ActivityLog activityLog) {
+        if (!activityLogWriter.isEnabled()) {
+            activityLogRepository.save(activityLog);
+            return;
+        }
+        submitAfterCommit(List.of(activityLog));
+    }
+    
+    // Async mode: entries reach the background writer only after the caller's transaction commits, so
+    // rolled-back work is not logged and the writer's user lookup sees users created in that transaction
+    private void submitAfterCommit(List<ActivityLog> activityLogs) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    activityLogWriter.submitAll(activityLogs);
+                }
+            });
+        } else {
+            activityLogWriter.submitAll(activityLogs);
+        }
+    }
+    
+    public Map<String, Object> getPipelineStats() {
+        return activityLogWriter.stats();
     }
     
     public List<ActivityLog> getActivityLogsByUser(User user) {
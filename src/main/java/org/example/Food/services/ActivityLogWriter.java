@@ -0,0 +1,304 @@
+package org.example.service;
+
+// Member: Asmal - Admin management
+// Asynchronous activity log pipeline: log events go into a bounded in-memory buffer
+// and a background thread writes them to activity_logs with JDBC batch inserts.
+// ActivityLogService only submits entries once the caller's transaction has committed.
+// Related database tables: activity log table
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.model.ActivityLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class ActivityLogWriter {
+    private static final Logger log = LoggerFactory.getLogger(ActivityLogWriter.class);
+
+    // user_id is resolved through a subquery so events for users deleted before the
+    // flush are stored with a NULL user, the same as ON DELETE SET NULL would do
+    private static final String INSERT_SQL =
+            "INSERT INTO activity_logs (action, description, entity_type, entity_id, ip_address, user_agent, user_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, (SELECT u.id FROM users u WHERE u.id = ?), ?)";
+
+    public enum BackpressurePolicy {
+        BLOCK,
+        DROP_OLDEST,
+        SAMPLE
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.activity-log.mode:sync}")
+    private String mode;
+
+    @Value("${app.activity-log.buffer-size:10000}")
+    private int bufferSize;
+
+    @Value("${app.activity-log.flush-size:200}")
+    private int flushSize;
+
+    @Value("${app.activity-log.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${app.activity-log.backpressure:BLOCK}")
+    private BackpressurePolicy backpressure;
+
+    // BLOCK policy: longest wait for buffer space; the entry is then written directly instead.
+    // It also bounds how long shutdown() can wait for a blocked submit to release the state lock
+    @Value("${app.activity-log.block-timeout-ms:2000}")
+    private long blockTimeoutMs;
+
+    // SAMPLE policy: once the buffer is this full, only every sample-rate-th event is kept
+    @Value("${app.activity-log.sample-threshold:0.75}")
+    private double sampleThreshold;
+
+    @Value("${app.activity-log.sample-rate:10}")
+    private int sampleRate;
+
+    private BlockingQueue<ActivityLogEvent> buffer;
+    private Thread writerThread;
+    private volatile boolean running;
+    // submit() holds the read lock while it checks running and enqueues; shutdown() flips running under
+    // the write lock, so no event can be enqueued after the final drain. A BLOCK submit holds the read
+    // lock for at most block-timeout-ms
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private TransactionTemplate ownTransaction;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (!"async".equalsIgnoreCase(mode)) {
+            return;
+        }
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        running = true;
+        writerThread = new Thread(this::runWriter, "activity-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Async activity log writer started (buffer={}, flushSize={}, interval={}ms, policy={})",
+                bufferSize, flushSize, flushIntervalMs, backpressure);
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    // Entries of a committed transaction. Any the writer does not accept (it is shutting down, or the
+    // buffer stayed full for block-timeout-ms) are inserted right away in a transaction of their own,
+    // as the caller's one has already completed
+    public void submitAll(List<ActivityLog> activityLogs) {
+        List<ActivityLogEvent> refused = new ArrayList<>();
+        for (ActivityLog activityLog : activityLogs) {
+            ActivityLogEvent event = new ActivityLogEvent(activityLog);
+            if (!submit(event)) {
+                refused.add(event);
+            }
+        }
+        if (!refused.isEmpty()) {
+            ownTransaction.executeWithoutResult(status -> insert(refused));
+        }
+    }
+
+    // Returns false when the event has not been queued: the writer is not running or the buffer stayed full
+    private boolean submit(ActivityLogEvent event) {
+        stateLock.readLock().lock();
+        try {
+            return running && enqueue(event);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    private boolean enqueue(ActivityLogEvent event) {
+        switch (backpressure) {
+            case BLOCK -> {
+                try {
+                    if (!buffer.offer(event, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        return false;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!buffer.offer(event)) {
+                    if (buffer.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                }
+            }
+            case SAMPLE -> {
+                if (buffer.size() >= bufferSize * sampleThreshold
+                        && sampleCounter.incrementAndGet() % sampleRate != 0) {
+                    dropped.incrementAndGet();
+                    return true;
+                }
+                if (!buffer.offer(event)) {
+                    dropped.incrementAndGet();
+                    return true;
+                }
+            }
+        }
+        enqueued.incrementAndGet();
+        return true;
+    }
+
+    private void runWriter() {
+        List<ActivityLogEvent> batch = new ArrayList<>(flushSize);
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        long deadline = System.nanoTime() + intervalNanos;
+        while (running) {
+            try {
+                long wait = deadline - System.nanoTime();
+                if (wait > 0) {
+                    ActivityLogEvent event = buffer.poll(wait, TimeUnit.NANOSECONDS);
+                    if (event != null) {
+                        batch.add(event);
+                        buffer.drainTo(batch, flushSize - batch.size());
+                    }
+                }
+                if (batch.size() >= flushSize || System.nanoTime() - deadline >= 0) {
+                    write(batch);
+                    batch.clear();
+                    deadline = System.nanoTime() + intervalNanos;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Activity log writer error", e);
+            }
+        }
+        // Write the batch in hand; anything still buffered is drained by shutdown()
+        write(batch);
+    }
+
+    private void write(List<ActivityLogEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            insert(batch);
+            written.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            failed.addAndGet(batch.size());
+            log.error("Failed to write {} activity log entries", batch.size(), e);
+        }
+    }
+
+    // Synchronous batch insert in the caller's transaction; failures propagate like a repository save
+    public void writeNow(List<ActivityLog> activityLogs) {
+        if (activityLogs.isEmpty()) {
+            return;
+        }
+        insert(activityLogs.stream().map(ActivityLogEvent::new).toList());
+    }
+
+    private void insert(List<ActivityLogEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, ev) -> {
+            ps.setString(1, ev.action);
+            ps.setString(2, ev.description);
+            ps.setString(3, ev.entityType);
+            ps.setObject(4, ev.entityId, Types.BIGINT);
+            ps.setString(5, ev.ipAddress);
+            ps.setString(6, ev.userAgent);
+            ps.setObject(7, ev.userId, Types.BIGINT);
+            ps.setTimestamp(8, Timestamp.valueOf(ev.createdAt));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stateLock.writeLock().lock();
+        try {
+            if (!running) {
+                return;
+            }
+            // The writer notices the flag within one flush interval and writes its current batch
+            running = false;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        try {
+            writerThread.join(flushIntervalMs + TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Guaranteed flush of everything still buffered
+        List<ActivityLogEvent> remaining = new ArrayList<>(flushSize);
+        while (buffer.drainTo(remaining, flushSize) > 0) {
+            write(remaining);
+            remaining.clear();
+        }
+        log.info("Async activity log writer stopped (written={}, dropped={}, failed={})",
+                written.get(), dropped.get(), failed.get());
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+            "mode", running ? "async" : "sync",
+            "policy", backpressure.name(),
+            "buffered", buffer != null ? buffer.size() : 0,
+            "enqueued", enqueued.get(),
+            "dropped", dropped.get(),
+            "written", written.get(),
+            "failed", failed.get()
+        );
+    }
+
+    // Immutable snapshot of an ActivityLog; entities are not handed to the writer thread
+    private static final class ActivityLogEvent {
+        private final String action;
+        private final String description;
+        private final String entityType;
+        private final Long entityId;
+        private final String ipAddress;
+        private final String userAgent;
+        private final Long userId;
+        private final LocalDateTime createdAt;
+
+        private ActivityLogEvent(ActivityLog activityLog) {
+            this.action = activityLog.getAction();
+            this.description = activityLog.getDescription();
+            this.entityType = activityLog.getEntityType();
+            this.entityId = activityLog.getEntityId();
+            this.ipAddress = activityLog.getIpAddress();
+            this.userAgent = activityLog.getUserAgent();
+            this.userId = activityLog.getUser() != null ? activityLog.getUser().getId() : null;
+            this.createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.service;
+
+// Member: Piranavan - Order management
+// Checkout pipeline: loads the whole cart in one query, validates it in memory
+// and writes order items with a batched JDBC insert
+// Related database tables: orders, order item and food tables
+
+import org.example.model.*;
+import org.example.repository.FoodRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class CheckoutService {
+
+    private static final String INSERT_ORDER_ITEM_SQL =
+            "INSERT INTO order_items (quantity, unit_price, total_price, order_id, food_id) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ShopService shopService;
+
+    @Autowired
+    private OrderCounterService orderCounterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public Order checkout(Customer customer, Long shopId, List<Map<String, Object>> items) {
+        if (items == null || items.isEmpty()) {
+            throw new RuntimeException("Cart is empty");
+        }
+        Shop shop = shopService.findById(shopId);
+
+        // Parse cart lines first so the foods can be loaded with a single query
+        List<Long> foodIds = new ArrayList<>(items.size());
+        List<Integer> quantities = new ArrayList<>(items.size());
+        List<BigDecimal> expectedPrices = new ArrayList<>(items.size());
+        for (Map<String, Object> it : items) {
+            Integer quantity = Integer.valueOf(String.valueOf(it.get("quantity")));
+            if (quantity < 1) {
+                throw new RuntimeException("Quantity must be at least 1");
+            }
+            foodIds.add(Long.valueOf(String.valueOf(it.get("foodId"))));
+            quantities.add(quantity);
+            expectedPrices.add(it.get("price") != null ? new BigDecimal(String.valueOf(it.get("price"))) : null);
+        }
+
+        Set<Long> distinctIds = new LinkedHashSet<>(foodIds);
+        Map<Long, Food> foods = foodRepository.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(Food::getId, Function.identity()));
+
+        // Validate ownership, availability and prices in memory
+        BigDecimal total = BigDecimal.ZERO;
+        List<OrderItem> orderItems = new ArrayList<>(items.size());
+        Map<Long, Integer> orderIncrements = new LinkedHashMap<>();
+        for (int i = 0; i < foodIds.size(); i++) {
+            Long foodId = foodIds.get(i);
+            Food food = foods.get(foodId);
+            if (food == null) {
+                throw new RuntimeException("Food not found with id: " + foodId);
+            }
+            if (!food.getShop().getId().equals(shop.getId())) {
+                throw new RuntimeException("All items must belong to the same shop");
+            }
+            if (!Boolean.TRUE.equals(food.getIsAvailable())) {
+                throw new RuntimeException("Food is not available: " + food.getName());
+            }
+            BigDecimal unitPrice = food.getPrice();
+            BigDecimal expectedPrice = expectedPrices.get(i);
+            if (expectedPrice != null && expectedPrice.compareTo(unitPrice) != 0) {
+                throw new RuntimeException("Price changed for " + food.getName() + ", please review your cart");
+            }
+
+            OrderItem oi = new OrderItem(quantities.get(i), unitPrice, null, food);
+            total = total.add(oi.getTotalPrice());
+            orderItems.add(oi);
+            // One increment per cart line, as the per-line counter update did before
+            orderIncrements.merge(foodId, 1, Integer::sum);
+        }
+
+        Order order = new Order(customer, shop, total);
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setPaymentStatus(PaymentStatus.PAID);
+        Order saved = orderService.createOrder(order);
+
+        // Items are written with one JDBC batch instead of being cascaded row by row
+        jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM_SQL, orderItems, orderItems.size(), (ps, oi) -> {
+            ps.setInt(1, oi.getQuantity());
+            ps.setBigDecimal(2, oi.getUnitPrice());
+            ps.setBigDecimal(3, oi.getTotalPrice());
+            ps.setLong(4, saved.getId());
+            ps.setLong(5, oi.getFood().getId());
+        });
+
+        orderCounterService.addFoodOrders(orderIncrements);
+
+        return saved;
+    }
+}
@@ -6,7 +6,9 @@ package org.example.service;
 import org.example.model.Customer;
 import org.example.repository.CustomerRepository;
 import org.example.repository.UserRepository;
+import org.example.security.UserAccountChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,6 +33,12 @@ public class CustomerService {
     @Autowired
     private ActivityLogService activityLogService;
     
+    @Autowired
+    private OrderCounterService orderCounterService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public Customer registerCustomer(Customer customer) {
         // Check if email already exists in users table (includes all user types)
         if (userRepository.existsByEmail(customer.getEmail())) {
@@ -71,6 +79,7 @@ public class CustomerService {
         
         customer.setIsActive(false);
         customerRepository.save(customer);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(customer.getEmail()));
         
         activityLogService.logActivity("CUSTOMER_DEACTIVATED", "Customer deactivated: " + customer.getName(), customer);
     }
@@ -79,6 +88,11 @@ public class CustomerService {
         return customerRepository.findByEmail(email);
     }
     
+    // Proxy for the logged-in customer when only the id is needed (no SELECT is issued)
+    public Customer getReference(Long id) {
+        return customerRepository.getReferenceById(id);
+    }
+    
     public Customer findById(Long id) {
         return customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
@@ -101,11 +115,7 @@ public class CustomerService {
     }
     
     public void updateCustomerStats(Long customerId, Double orderAmount) {
-        Customer customer = findById(customerId);
-        customer.setTotalOrders(customer.getTotalOrders() + 1);
-        BigDecimal updatedTotal = customer.getTotalSpent().add(BigDecimal.valueOf(orderAmount));
-        customer.setTotalSpent(updatedTotal);
-        customerRepository.save(customer);
+        orderCounterService.addCustomerOrder(customerId, BigDecimal.valueOf(orderAmount));
     }
     
     @Transactional
@@ -121,5 +131,6 @@ public class CustomerService {
         // 1. All orders associated with this customer
         // 2. All order items associated with those orders (due to cascade on Order.orderItems)
         customerRepository.delete(customer);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(customer.getEmail()));
     }
 }
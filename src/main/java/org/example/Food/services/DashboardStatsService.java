@@ -0,0 +1,110 @@
+package org.example.service;
+
+// Member: Arun - Shop & Menu Management
+// Shop dashboard statistics computed with SUM/COUNT/GROUP BY queries.
+// The independent aggregates run in parallel, each on its own pooled connection.
+// Related database tables: shop, food and order tables
+
+import jakarta.annotation.PreDestroy;
+import org.example.dto.ShopDashboardStatsDTO;
+import org.example.dto.ShopOrderStats;
+import org.example.dto.TopSellingItem;
+import org.example.model.OrderStatus;
+import org.example.model.PaymentStatus;
+import org.example.model.Shop;
+import org.example.repository.FoodRepository;
+import org.example.repository.OrderItemRepository;
+import org.example.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class DashboardStatsService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    private final ExecutorService queryExecutor;
+
+    public DashboardStatsService(@Value("${app.dashboard.query-threads:4}") int queryThreads) {
+        AtomicInteger counter = new AtomicInteger();
+        this.queryExecutor = Executors.newFixedThreadPool(queryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-query-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ShopDashboardStatsDTO getShopDashboardStats(Shop shop) {
+        Long shopId = shop.getId();
+        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+        LocalDateTime endOfDay = startOfDay.plusDays(1).minusNanos(1);
+
+        // Repository calls run in their own read-only transactions, so they can be issued concurrently
+        CompletableFuture<ShopOrderStats> orderStats = CompletableFuture.supplyAsync(() ->
+                orderRepository.aggregateShopOrderStats(shopId, PaymentStatus.PAID, startOfDay, endOfDay), queryExecutor);
+        CompletableFuture<List<Object[]>> statusCounts = CompletableFuture.supplyAsync(() ->
+                orderRepository.countByStatusForShop(shopId), queryExecutor);
+        CompletableFuture<Long> foodCount = CompletableFuture.supplyAsync(() ->
+                foodRepository.countByShopId(shopId), queryExecutor);
+
+        try {
+            ShopOrderStats stats = orderStats.join();
+            Map<String, Long> ordersByStatus = new LinkedHashMap<>();
+            Arrays.stream(OrderStatus.values()).forEach(status -> ordersByStatus.put(status.name(), 0L));
+            for (Object[] row : statusCounts.join()) {
+                ordersByStatus.put(((OrderStatus) row[0]).name(), (Long) row[1]);
+            }
+
+            return new ShopDashboardStatsDTO(
+                    stats.getTotalOrders() != null ? stats.getTotalOrders() : 0L,
+                    stats.getTotalRevenue() != null ? stats.getTotalRevenue() : BigDecimal.ZERO,
+                    stats.getRangeRevenue() != null ? stats.getRangeRevenue() : BigDecimal.ZERO,
+                    foodCount.join(),
+                    shop.getRating() != null ? shop.getRating() : BigDecimal.ZERO,
+                    ordersByStatus
+            );
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    // Total and ranged revenue for the revenue report, in a single aggregate query
+    public ShopOrderStats getRevenueStats(Shop shop, LocalDateTime startDate, LocalDateTime endDate) {
+        return orderRepository.aggregateShopOrderStats(shop.getId(), PaymentStatus.PAID, startDate, endDate);
+    }
+
+    // Top-N sellers over the last `days` days (all time when days is null), cancelled orders excluded
+    public List<TopSellingItem> getTopSellingItems(Long shopId, int limit, Integer days) {
+        LocalDateTime since = days != null
+                ? LocalDate.now().minusDays(days - 1L).atStartOfDay()
+                : LocalDateTime.of(1970, 1, 1, 0, 0);
+        return orderItemRepository.findTopSellingItems(shopId, OrderStatus.CANCELLED, since, PageRequest.of(0, limit));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        queryExecutor.shutdown();
+    }
+}
@@ -1,14 +1,29 @@
 package org.example.service;
 
+import org.example.cache.MenuCache;
+import org.example.dto.FoodDTO;
+import org.example.dto.FoodQueryResultDTO;
 import org.example.model.Food;
 import org.example.model.Shop;
 import org.example.repository.FoodRepository;
+import org.example.search.CatalogSearchIndex;
+import org.example.search.FoodFacetIndex;
+import org.example.search.SortedPriceIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -20,8 +35,25 @@ public class FoodService {
     @Autowired
     private ActivityLogService activityLogService;
     
+    @Autowired
+    private OrderCounterService orderCounterService;
+    
+    @Autowired
+    private ShopService shopService;
+    
+    @Autowired
+    private MenuCache menuCache;
+    
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+    
+    @Value("${app.search.max-results:50}")
+    private int maxSearchResults;
+    
     public Food createFood(Food food) {
         Food savedFood = foodRepository.save(food);
+        menuCache.invalidateShop(food.getShop().getId());
+        catalogSearchIndex.indexFood(savedFood);
         
         activityLogService.logActivity("FOOD_CREATED", "Food created: " + food.getName(), 
                 food.getShop(), "Food", savedFood.getId());
@@ -42,6 +74,8 @@ public class FoodService {
         existingFood.setPreparationTime(food.getPreparationTime());
         
         Food updatedFood = foodRepository.save(existingFood);
+        menuCache.invalidateShop(existingFood.getShop().getId());
+        catalogSearchIndex.indexFood(updatedFood);
         
         activityLogService.logActivity("FOOD_UPDATED", "Food updated: " + food.getName(), 
                 food.getShop(), "Food", updatedFood.getId());
@@ -54,6 +88,8 @@ public class FoodService {
                 .orElseThrow(() -> new RuntimeException("Food not found with id: " + foodId));
         
         foodRepository.delete(food);
+        menuCache.invalidateShop(food.getShop().getId());
+        catalogSearchIndex.removeFood(foodId);
         
         activityLogService.logActivity("FOOD_DELETED", "Food deleted: " + food.getName(), 
                 food.getShop(), "Food", foodId);
@@ -69,23 +105,64 @@ public class FoodService {
     }
     
     public List<Food> getAvailableFoodsByShop(Shop shop) {
-        return foodRepository.findAvailableByShop(shop);
+        return menuCache.getShopMenu(shop.getId(), () -> foodRepository.findAvailableByShop(shop));
+    }
+    
+    // Cached menu lookup by id; the shop row is only read on a cache miss
+    public List<Food> getAvailableFoodsByShopId(Long shopId) {
+        return menuCache.getShopMenu(shopId, () -> foodRepository.findAvailableByShop(shopService.findById(shopId)));
     }
     
     public List<Food> getFoodsByCategory(String category) {
         return foodRepository.findAvailableByCategoryOrderByRating(category);
     }
     
+    // Served from the in-memory search index; the LIKE query is only used until the index is built
     public List<Food> searchFoodsByName(String name) {
-        return foodRepository.findByNameContainingAndAvailable(name);
+        if (!catalogSearchIndex.isReady()) {
+            return foodRepository.findByNameContainingAndAvailable(name);
+        }
+        return findAllInOrder(catalogSearchIndex.searchFoods(name, maxSearchResults)).stream()
+                .filter(f -> Boolean.TRUE.equals(f.getIsAvailable()))
+                .toList();
+    }
+    
+    // Faceted catalog browse: filters and facet counts come from the bitmap index,
+    // only the foods on the requested page are read from the database
+    public FoodQueryResultDTO queryCatalog(String text, FoodFacetIndex.Query query, int page, int size) {
+        if (!catalogSearchIndex.isReady()) {
+            throw new IllegalStateException("Catalog index is not ready");
+        }
+        FoodFacetIndex.Result result = catalogSearchIndex.queryFoods(text, query.page(page, size));
+        return new FoodQueryResultDTO(findAllInOrder(result.ids()).stream().map(FoodDTO::from).toList(), result.total(), page, size,
+                result.categoryCounts(), result.priceCounts());
+    }
+    
+    private List<Food> findAllInOrder(List<Long> ids) {
+        Map<Long, Food> foods = foodRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Food::getId, Function.identity()));
+        return ids.stream()
+                .map(foods::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
     
-    public List<Food> getFoodsByPriceRange(Double minPrice, Double maxPrice) {
-        return foodRepository.findByPriceRangeAndAvailable(minPrice, maxPrice);
+    // Page of available foods in [minPrice, maxPrice] sorted by price; ids come from the
+    // in-memory sorted price index and only the page itself is read from the database
+    public Page<Food> getFoodsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, boolean descending, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        if (!catalogSearchIndex.isReady()) {
+            Sort sort = descending
+                    ? Sort.by(Sort.Order.desc("price"), Sort.Order.desc("id"))
+                    : Sort.by(Sort.Order.asc("price"), Sort.Order.asc("id"));
+            return foodRepository.findByPriceRangeAndAvailable(minPrice, maxPrice, pageRequest.withSort(sort));
+        }
+        SortedPriceIndex.Page ids = catalogSearchIndex.priceRange(minPrice, maxPrice, descending, page, size);
+        return new PageImpl<>(findAllInOrder(ids.ids()), pageRequest, ids.total());
     }
     
     public List<Food> getAllAvailableFoods() {
-        return foodRepository.findAllAvailableFromApprovedShops();
+        return menuCache.getAvailableFoods(foodRepository::findAllAvailableFromApprovedShops);
     }
     
     public List<Food> getAllFoods() {
@@ -96,18 +173,23 @@ public class FoodService {
         Food food = findById(foodId);
         food.setRating(BigDecimal.valueOf(newRating));
         foodRepository.save(food);
+        catalogSearchIndex.indexFood(food);
     }
     
     public void incrementFoodOrders(Long foodId) {
-        Food food = findById(foodId);
-        food.setTotalOrders(food.getTotalOrders() + 1);
-        foodRepository.save(food);
+        incrementFoodOrders(foodId, 1);
+    }
+    
+    public void incrementFoodOrders(Long foodId, int delta) {
+        orderCounterService.addFoodOrders(foodId, delta);
     }
     
     public void toggleFoodAvailability(Long foodId) {
         Food food = findById(foodId);
         food.setIsAvailable(!food.getIsAvailable());
         foodRepository.save(food);
+        menuCache.invalidateShop(food.getShop().getId());
+        catalogSearchIndex.indexFood(food);
         
         activityLogService.logActivity("FOOD_AVAILABILITY_TOGGLED", 
                 "Food availability toggled: " + food.getName() + " - " + (food.getIsAvailable() ? "Available" : "Unavailable"), 
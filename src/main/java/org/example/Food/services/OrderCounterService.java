@@ -0,0 +1,242 @@
+package org.example.service;
+
+// Member: Piranavan - Order management
+// Order counters for foods, shops and customers.
+// "direct" mode issues atomic UPDATE ... SET x = x + n statements straight away,
+// "buffered" mode collects increments in per-id LongAdders once the order's transaction commits
+// and flushes them in batches, each batch in its own transaction so it is applied all or nothing.
+// Related database tables: food, shop and customer tables
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.repository.CustomerRepository;
+import org.example.repository.FoodRepository;
+import org.example.repository.ShopRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class OrderCounterService {
+    private static final Logger log = LoggerFactory.getLogger(OrderCounterService.class);
+
+    private static final String FOOD_UPDATE_SQL =
+            "UPDATE foods SET total_orders = COALESCE(total_orders, 0) + ? WHERE id = ?";
+    private static final String SHOP_UPDATE_SQL =
+            "UPDATE shops SET total_orders = COALESCE(total_orders, 0) + ? WHERE id = ?";
+    private static final String CUSTOMER_UPDATE_SQL =
+            "UPDATE customers SET total_orders = COALESCE(total_orders, 0) + ?, total_spent = COALESCE(total_spent, 0) + ? WHERE id = ?";
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.counters.mode:direct}")
+    private String mode;
+
+    private final Map<Long, LongAdder> pendingFoodOrders = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> pendingShopOrders = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> pendingCustomerOrders = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> pendingCustomerSpentCents = new ConcurrentHashMap<>();
+
+    private TransactionTemplate ownTransaction;
+
+    @PostConstruct
+    void init() {
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isBuffered() {
+        return "buffered".equalsIgnoreCase(mode);
+    }
+
+    public void addFoodOrders(Long foodId, int delta) {
+        if (isBuffered()) {
+            afterCommit(() -> add(pendingFoodOrders, foodId, delta));
+        } else {
+            foodRepository.incrementTotalOrders(foodId, delta);
+        }
+    }
+
+    // Applies the increments of a whole cart; direct mode uses a single CASE-based UPDATE
+    public void addFoodOrders(Map<Long, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (isBuffered()) {
+            Map<Long, Integer> copy = Map.copyOf(deltas);
+            afterCommit(() -> copy.forEach((foodId, delta) -> add(pendingFoodOrders, foodId, delta)));
+            return;
+        }
+        StringBuilder sql = new StringBuilder("UPDATE foods SET total_orders = COALESCE(total_orders, 0) + CASE id");
+        List<Object> args = new ArrayList<>(deltas.size() * 3);
+        deltas.forEach((foodId, delta) -> {
+            sql.append(" WHEN ? THEN ?");
+            args.add(foodId);
+            args.add(delta);
+        });
+        sql.append(" ELSE 0 END WHERE id IN (");
+        sql.append(deltas.keySet().stream().map(id -> "?").collect(Collectors.joining(", ")));
+        sql.append(")");
+        args.addAll(deltas.keySet());
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    public void addShopOrders(Long shopId, int delta) {
+        if (isBuffered()) {
+            afterCommit(() -> add(pendingShopOrders, shopId, delta));
+        } else {
+            shopRepository.incrementTotalOrders(shopId, delta);
+        }
+    }
+
+    public void addCustomerOrder(Long customerId, BigDecimal amount) {
+        if (isBuffered()) {
+            long cents = toCents(amount);
+            afterCommit(() -> {
+                add(pendingCustomerOrders, customerId, 1);
+                add(pendingCustomerSpentCents, customerId, cents);
+            });
+        } else {
+            customerRepository.incrementStats(customerId, 1, amount);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.counters.flush-interval-ms:5000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void flush() {
+        if (!isBuffered()) {
+            return;
+        }
+        flushSimple(pendingFoodOrders, FOOD_UPDATE_SQL);
+        flushSimple(pendingShopOrders, SHOP_UPDATE_SQL);
+        flushCustomers();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush buffered order counters on shutdown", e);
+        }
+    }
+
+    private void flushSimple(Map<Long, LongAdder> pending, String sql) {
+        List<Object[]> batch = new ArrayList<>();
+        for (Long id : pending.keySet()) {
+            long delta = take(pending, id);
+            if (delta != 0) {
+                batch.add(new Object[]{delta, id});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            ownTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+        } catch (RuntimeException e) {
+            // The batch was rolled back as a whole; put the increments back so they are retried on the next flush
+            batch.forEach(args -> add(pending, (Long) args[1], (Long) args[0]));
+            log.warn("Order counter flush failed, {} rows re-queued: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void flushCustomers() {
+        List<Object[]> batch = new ArrayList<>();
+        Set<Long> ids = new HashSet<>(pendingCustomerOrders.keySet());
+        ids.addAll(pendingCustomerSpentCents.keySet());
+        for (Long id : ids) {
+            long orders = take(pendingCustomerOrders, id);
+            long cents = take(pendingCustomerSpentCents, id);
+            if (orders != 0 || cents != 0) {
+                batch.add(new Object[]{orders, BigDecimal.valueOf(cents, 2), id});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            ownTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(CUSTOMER_UPDATE_SQL, batch));
+        } catch (RuntimeException e) {
+            batch.forEach(args -> {
+                Long id = (Long) args[2];
+                add(pendingCustomerOrders, id, (Long) args[0]);
+                add(pendingCustomerSpentCents, id, toCents((BigDecimal) args[1]));
+            });
+            log.warn("Customer counter flush failed, {} rows re-queued: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    // Adds and takes both run inside the map's per-key lock, so removing the entry cannot lose an increment
+    private static void add(Map<Long, LongAdder> pending, Long id, long delta) {
+        pending.compute(id, (k, adder) -> {
+            LongAdder target = adder != null ? adder : new LongAdder();
+            target.add(delta);
+            return target;
+        });
+    }
+
+    // Removes the id's entry and returns what it had collected
+    private static long take(Map<Long, LongAdder> pending, Long id) {
+        long[] taken = new long[1];
+        pending.computeIfPresent(id, (k, adder) -> {
+            taken[0] = adder.sum();
+            return null;
+        });
+        return taken[0];
+    }
+
+    // Buffered increments only count once the order is committed; a rolled back checkout adds nothing
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
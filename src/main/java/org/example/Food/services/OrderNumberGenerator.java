@@ -0,0 +1,84 @@
+package org.example.service;
+
+// Member: Piranavan - Order management
+// Order numbers without a database round trip. Each number packs, into 63 bits,
+//   41 bits  milliseconds since 2024-01-01 (good until ~2093)
+//   10 bits  node id (app.order-number.node-id, unique per running instance, 0-1023)
+//   12 bits  sequence within the millisecond (4096 per ms per node)
+// and is printed as 13 Crockford base-32 characters, e.g. ORD-01HX4Q-7M2K9ZA.
+// The last issued (time, sequence) pair lives in one AtomicLong updated with compare-and-set, so
+// numbers are unique and strictly increasing per node without locks. When the sequence of a
+// millisecond runs out, or the wall clock steps backwards, the generator keeps counting on from
+// the last time it used instead of waiting; it catches up with the clock once traffic drops.
+// Related database tables: orders and order item tables
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+@Component
+public class OrderNumberGenerator {
+
+    public static final String PREFIX = "ORD-";
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    // (milliseconds since EPOCH_MILLIS << SEQUENCE_BITS) | sequence of the last number issued
+    private final AtomicLong last = new AtomicLong();
+
+    public OrderNumberGenerator(@Value("${app.order-number.node-id:0}") long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    OrderNumberGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("app.order-number.node-id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public String next() {
+        return format(nextId());
+    }
+
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long current;
+        do {
+            previous = last.get();
+            // A new millisecond starts again at sequence 0; otherwise take the next slot after the last one,
+            // which rolls over into the following millisecond when the sequence is exhausted
+            current = now > previous ? now : previous + 1;
+        } while (!last.compareAndSet(previous, current));
+        long millis = current >>> SEQUENCE_BITS;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (current & SEQUENCE_MASK);
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    // Fixed width, so string order matches numeric order
+    static String format(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        long value = id;
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return PREFIX + new String(chars, 0, 6) + "-" + new String(chars, 6, ENCODED_LENGTH - 6);
+    }
+}
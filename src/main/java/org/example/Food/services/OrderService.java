@@ -3,15 +3,33 @@ package org.example.service;
 // Member: Piranavan - Order management
 // Related database tables: orders and order item tables
 
+import org.example.dto.CursorPageDTO;
+import org.example.dto.KeysetCursor;
+import org.example.dto.OrderDTO;
+import org.example.dto.OrderItemDTO;
+import org.example.dto.OrderStatusOutcomeDTO;
+import org.example.dto.OrderSummaryDTO;
+import org.example.dto.OrderTrackingDTO;
+import org.example.dto.OrderWithItemsDTO;
+import org.example.dto.ShopCustomerDTO;
 import org.example.model.*;
+import org.example.push.OrderChangedEvent;
 import org.example.repository.OrderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -24,10 +42,24 @@ public class OrderService {
     @Autowired
     private ActivityLogService activityLogService;
     
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private OrderNumberGenerator orderNumberGenerator;
+    
     // Removed unused injected services
     
     public Order createOrder(Order order) {
+        if (order.getOrderNumber() == null) {
+            order.setOrderNumber(orderNumberGenerator.next());
+        }
         Order savedOrder = orderRepository.save(order);
+        revenueRollupService.applyChange(savedOrder, false);
+        eventPublisher.publishEvent(OrderChangedEvent.of(OrderChangedEvent.Type.ORDER_CREATED, savedOrder, null));
         
         activityLogService.logActivity("ORDER_CREATED", "Order created: " + savedOrder.getOrderNumber(), 
                 savedOrder.getCustomer(), "Order", savedOrder.getId());
@@ -35,11 +67,20 @@ public class OrderService {
         return savedOrder;
     }
     
+    // Same workflow as updateOrderStatuses: the current status is returned as is, a transition
+    // OrderStatus.canTransitionTo does not allow throws IllegalStateException
     public Order updateOrderStatus(Long orderId, OrderStatus newStatus) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         
         OrderStatus oldStatus = order.getStatus();
+        if (oldStatus == newStatus) {
+            return order;
+        }
+        if (!oldStatus.canTransitionTo(newStatus)) {
+            throw new IllegalStateException("Cannot change order status from " + oldStatus + " to " + newStatus);
+        }
+        boolean wasCounted = revenueRollupService.countsTowardsRevenue(order);
         order.setStatus(newStatus);
         
         // Update estimated delivery time based on status
@@ -50,6 +91,8 @@ public class OrderService {
         }
         
         Order updatedOrder = orderRepository.save(order);
+        revenueRollupService.applyChange(updatedOrder, wasCounted);
+        eventPublisher.publishEvent(OrderChangedEvent.of(OrderChangedEvent.Type.STATUS_CHANGED, updatedOrder, oldStatus));
         
         activityLogService.logActivity("ORDER_STATUS_UPDATED", 
                 "Order status changed from " + oldStatus + " to " + newStatus + " for order: " + order.getOrderNumber(), 
@@ -58,14 +101,82 @@ public class OrderService {
         return updatedOrder;
     }
     
+    // Moves several of a shop's orders to one status with a locking read, the transition rules checked in
+    // memory, a single UPDATE ... WHERE id IN (...) AND shop_id = ? and one batch of activity log entries.
+    // Orders that are not the shop's or cannot make the transition are reported and left as they are;
+    // the outcomes come back in request order, one per distinct id
+    public List<OrderStatusOutcomeDTO> updateOrderStatuses(Long shopId, Collection<Long> orderIds, OrderStatus newStatus) {
+        Map<Long, OrderStatusOutcomeDTO> outcomes = new LinkedHashMap<>();
+        for (Long orderId : orderIds) {
+            outcomes.put(orderId, OrderStatusOutcomeDTO.notFound(orderId));
+        }
+        List<Order> toUpdate = new ArrayList<>();
+        for (Order order : orderRepository.findByIdInAndShopIdForUpdate(outcomes.keySet(), shopId)) {
+            OrderStatus current = order.getStatus();
+            if (current == newStatus) {
+                outcomes.put(order.getId(), new OrderStatusOutcomeDTO(order.getId(), order.getOrderNumber(), current, current,
+                        OrderStatusOutcomeDTO.Result.UNCHANGED));
+            } else if (!current.canTransitionTo(newStatus)) {
+                outcomes.put(order.getId(), new OrderStatusOutcomeDTO(order.getId(), order.getOrderNumber(), current, current,
+                        OrderStatusOutcomeDTO.Result.INVALID_TRANSITION));
+            } else {
+                toUpdate.add(order);
+            }
+        }
+        if (toUpdate.isEmpty()) {
+            return List.copyOf(outcomes.values());
+        }
+        
+        // Same delivery time rules as updateOrderStatus
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime estimatedDeliveryTime = newStatus == OrderStatus.CONFIRMED ? now.plusMinutes(30) : null;
+        LocalDateTime actualDeliveryTime = newStatus == OrderStatus.DELIVERED ? now : null;
+        orderRepository.updateStatusByIdInAndShopId(toUpdate.stream().map(Order::getId).toList(), shopId, newStatus, now,
+                estimatedDeliveryTime, actualDeliveryTime);
+        
+        // The loaded orders are detached now; bring them in line with the updated rows for the revenue
+        // rollup, the push streams and the log (only their ids are read from the shop and customer proxies)
+        OrderChangedEvent.Type eventType = newStatus == OrderStatus.CANCELLED
+                ? OrderChangedEvent.Type.ORDER_CANCELLED : OrderChangedEvent.Type.STATUS_CHANGED;
+        List<ActivityLog> activityLogs = new ArrayList<>(toUpdate.size());
+        for (Order order : toUpdate) {
+            OrderStatus oldStatus = order.getStatus();
+            boolean wasCounted = revenueRollupService.countsTowardsRevenue(order);
+            order.setStatus(newStatus);
+            order.setUpdatedAt(now);
+            if (estimatedDeliveryTime != null) {
+                order.setEstimatedDeliveryTime(estimatedDeliveryTime);
+            }
+            if (actualDeliveryTime != null) {
+                order.setActualDeliveryTime(actualDeliveryTime);
+            }
+            revenueRollupService.applyChange(order, wasCounted);
+            eventPublisher.publishEvent(OrderChangedEvent.of(eventType, order, oldStatus));
+            // Same actions and descriptions as cancelOrder and updateOrderStatus, so log filters see both paths
+            activityLogs.add(newStatus == OrderStatus.CANCELLED
+                    ? new ActivityLog("ORDER_CANCELLED", "Order cancelled: " + order.getOrderNumber(),
+                            "Order", order.getId(), order.getCustomer())
+                    : new ActivityLog("ORDER_STATUS_UPDATED",
+                            "Order status changed from " + oldStatus + " to " + newStatus + " for order: " + order.getOrderNumber(),
+                            "Order", order.getId(), order.getCustomer()));
+            outcomes.put(order.getId(), new OrderStatusOutcomeDTO(order.getId(), order.getOrderNumber(), oldStatus, newStatus,
+                    OrderStatusOutcomeDTO.Result.UPDATED));
+        }
+        activityLogService.logActivities(activityLogs);
+        
+        return List.copyOf(outcomes.values());
+    }
+    
     public Order updatePaymentStatus(Long orderId, PaymentStatus newStatus) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         
         PaymentStatus oldStatus = order.getPaymentStatus();
+        boolean wasCounted = revenueRollupService.countsTowardsRevenue(order);
         order.setPaymentStatus(newStatus);
         
         Order updatedOrder = orderRepository.save(order);
+        revenueRollupService.applyChange(updatedOrder, wasCounted);
         
         activityLogService.logActivity("PAYMENT_STATUS_UPDATED", 
                 "Payment status changed from " + oldStatus + " to " + newStatus + " for order: " + order.getOrderNumber(), 
@@ -78,12 +189,16 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         
-        if (order.getStatus() == OrderStatus.DELIVERED || order.getStatus() == OrderStatus.CANCELLED) {
-            throw new RuntimeException("Cannot cancel order with status: " + order.getStatus());
+        if (!order.getStatus().canTransitionTo(OrderStatus.CANCELLED)) {
+            throw new IllegalStateException("Cannot cancel order with status: " + order.getStatus());
         }
         
+        boolean wasCounted = revenueRollupService.countsTowardsRevenue(order);
+        OrderStatus oldStatus = order.getStatus();
         order.setStatus(OrderStatus.CANCELLED);
         Order cancelledOrder = orderRepository.save(order);
+        revenueRollupService.applyChange(cancelledOrder, wasCounted);
+        eventPublisher.publishEvent(OrderChangedEvent.of(OrderChangedEvent.Type.ORDER_CANCELLED, cancelledOrder, oldStatus));
         
         activityLogService.logActivity("ORDER_CANCELLED", "Order cancelled: " + order.getOrderNumber(), 
                 cancelledOrder.getCustomer(), "Order", cancelledOrder.getId());
@@ -100,12 +215,28 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
     }
     
+    // Order with items for the shop's preparation view; empty when the order is not the shop's
+    @Transactional(readOnly = true)
+    public Optional<OrderWithItemsDTO> getShopOrderDetails(Long orderId, Long shopId) {
+        return orderRepository.findDetailsByIdAndShopId(orderId, shopId).map(this::toOrderWithItems);
+    }
+    
+    // Order with items for the customer's order modal; empty when the order is not the customer's
+    @Transactional(readOnly = true)
+    public Optional<OrderWithItemsDTO> getCustomerOrderDetails(Long orderId, Long customerId) {
+        return orderRepository.findDetailsByIdAndCustomerId(orderId, customerId).map(this::toOrderWithItems);
+    }
+    
     public List<Order> getOrdersByCustomer(Customer customer) {
-        return orderRepository.findByCustomerOrderByCreatedAtDesc(customer);
+        return orderRepository.findByCustomerIdOrderByCreatedAtDesc(customer.getId());
     }
     
     public List<Order> getOrdersByShop(Shop shop) {
-        return orderRepository.findByShopOrderByCreatedAtDesc(shop);
+        return orderRepository.findByShopIdOrderByCreatedAtDesc(shop.getId());
+    }
+    
+    public List<Order> getRecentOrdersByShop(Shop shop, int limit) {
+        return orderRepository.findRecentByShopId(shop.getId(), PageRequest.of(0, limit));
     }
     
     public List<Order> getOrdersByStatus(OrderStatus status) {
@@ -113,7 +244,7 @@ public class OrderService {
     }
     
     public List<Order> getOrdersByStatusAndShop(OrderStatus status, Shop shop) {
-        return orderRepository.findByStatusAndShop(status, shop);
+        return orderRepository.findByShopIdAndStatus(shop.getId(), status);
     }
     
     public List<Order> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
@@ -121,7 +252,7 @@ public class OrderService {
     }
     
     public List<Order> getOrdersByShopAndDateRange(Shop shop, LocalDateTime startDate, LocalDateTime endDate) {
-        return orderRepository.findByShopAndCreatedAtBetween(shop, startDate, endDate);
+        return orderRepository.findByShopIdAndCreatedAtBetween(shop.getId(), startDate, endDate);
     }
     
     public List<Order> getOrdersByCustomerAndDateRange(Customer customer, LocalDateTime startDate, LocalDateTime endDate) {
@@ -132,27 +263,104 @@ public class OrderService {
         return orderRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public List<OrderDTO> getAllOrderDTOs() {
+        return orderRepository.findOrderDTOs();
+    }
+    
+    // Keyset page of orders, newest first; pass the previous page's nextCursor to continue
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderDTO> getOrderPage(String cursor, int size) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<OrderDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderRepository.findOrderDTOPage(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = orderRepository.findOrderDTOPageBefore(after.getCreatedAt(), after.getId(), limit);
+        }
+        
+        boolean hasMore = rows.size() > size;
+        List<OrderDTO> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            OrderDTO last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
+    
+    // Customer order history, newest first: one statement per page with shop name and item count
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderSummaryDTO> getCustomerOrderHistory(Long customerId, String cursor, int size) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<OrderSummaryDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderRepository.findCustomerOrderSummaries(customerId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = orderRepository.findCustomerOrderSummariesBefore(customerId, after.getCreatedAt(), after.getId(), limit);
+        }
+        
+        boolean hasMore = rows.size() > size;
+        List<OrderSummaryDTO> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            OrderSummaryDTO last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
+    
+    // Same projection without paging (limit <= 0 returns every order of the customer)
+    @Transactional(readOnly = true)
+    public List<OrderSummaryDTO> getCustomerOrderSummaries(Long customerId, int limit) {
+        Pageable pageable = limit > 0 ? PageRequest.of(0, limit) : Pageable.unpaged();
+        return orderRepository.findCustomerOrderSummaries(customerId, pageable);
+    }
+    
+    // Current state of the customer's orders placed since the cut-off, newest first (one indexed query)
+    @Transactional(readOnly = true)
+    public List<OrderTrackingDTO> getTrackingSnapshot(Long customerId, LocalDateTime since, int limit) {
+        return orderRepository.findTrackingSnapshot(customerId, since, PageRequest.of(0, limit));
+    }
+    
+    // sort: "spend" (default) or "recent"
+    @Transactional(readOnly = true)
+    public Page<ShopCustomerDTO> getShopCustomers(Long shopId, String sort, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        if ("recent".equalsIgnoreCase(sort)) {
+            return orderRepository.findShopCustomersByRecency(shopId, pageRequest);
+        }
+        return orderRepository.findShopCustomersBySpend(shopId, pageRequest);
+    }
+    
     public long countOrdersByShop(Shop shop) {
-        return orderRepository.countByShop(shop);
+        return orderRepository.countByShopId(shop.getId());
     }
     
     public long countOrdersByCustomer(Customer customer) {
-        return orderRepository.countByCustomer(customer);
+        return orderRepository.countByCustomerId(customer.getId());
     }
     
     public BigDecimal calculateTotalRevenue(Shop shop) {
-        List<Order> orders = orderRepository.findByShop(shop);
-        return orders.stream()
-                .filter(order -> order.getPaymentStatus() == PaymentStatus.PAID)
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return orderRepository.sumTotalAmountByShopAndPaymentStatus(shop, PaymentStatus.PAID);
     }
     
     public BigDecimal calculateTotalRevenueByDateRange(Shop shop, LocalDateTime startDate, LocalDateTime endDate) {
-        List<Order> orders = orderRepository.findByShopAndCreatedAtBetween(shop, startDate, endDate);
-        return orders.stream()
-                .filter(order -> order.getPaymentStatus() == PaymentStatus.PAID)
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return orderRepository.sumTotalAmountByShopAndPaymentStatusAndCreatedAtBetween(shop, PaymentStatus.PAID, startDate, endDate);
+    }
+    
+    // Items and foods are already loaded by the fetch join
+    private OrderWithItemsDTO toOrderWithItems(Order order) {
+        List<OrderItemDTO> items = order.getOrderItems().stream().map(oi -> new OrderItemDTO(
+                oi.getFood().getId(),
+                oi.getFood().getName(),
+                oi.getQuantity(),
+                oi.getUnitPrice(),
+                oi.getTotalPrice()
+        )).toList();
+        return new OrderWithItemsDTO(order.getId(), order.getOrderNumber(), order.getTotalAmount(),
+                order.getStatus().name(), order.getPaymentStatus().name(), order.getCreatedAt(), items);
     }
 }
@@ -6,12 +6,17 @@ package org.example.service;
 // - Shop dashboard and statistics
 // Related database tables: shop and food tables
 
+import org.example.cache.MenuCache;
 import org.example.model.Food;
 import org.example.model.Order;
 import org.example.model.Shop;
 import org.example.repository.ShopRepository;
 import org.example.repository.UserRepository;
+import org.example.search.CatalogSearchIndex;
+import org.example.security.UserAccountChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,7 +25,11 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -38,6 +47,21 @@ public class ShopService {
     @Autowired
     private ActivityLogService activityLogService;
     
+    @Autowired
+    private OrderCounterService orderCounterService;
+    
+    @Autowired
+    private MenuCache menuCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+    
+    @Value("${app.search.max-results:50}")
+    private int maxSearchResults;
+    
     public Shop registerShop(Shop shop) {
         // Check if email already exists in users table (includes all user types)
         if (userRepository.existsByEmail(shop.getEmail())) {
@@ -47,6 +71,7 @@ public class ShopService {
         shop.setPassword(passwordEncoder.encode(shop.getPassword()));
         shop.setIsApproved(false); // New shops need admin approval
         Shop savedShop = shopRepository.save(shop);
+        catalogSearchIndex.indexShop(savedShop);
         
         activityLogService.logActivity("SHOP_REGISTERED", "Shop registered: " + shop.getShopName(), savedShop);
         
@@ -59,6 +84,8 @@ public class ShopService {
         
         shop.setIsApproved(true);
         Shop approvedShop = shopRepository.save(shop);
+        menuCache.invalidateShop(shopId);
+        catalogSearchIndex.indexShop(approvedShop);
         
         activityLogService.logActivity("SHOP_APPROVED", "Shop approved: " + shop.getShopName(), approvedShop);
         
@@ -71,6 +98,9 @@ public class ShopService {
         
         shop.setIsActive(false);
         Shop rejectedShop = shopRepository.save(shop);
+        menuCache.invalidateShop(shopId);
+        catalogSearchIndex.indexShop(rejectedShop);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(shop.getEmail()));
         
         activityLogService.logActivity("SHOP_REJECTED", "Shop rejected: " + shop.getShopName(), rejectedShop);
         
@@ -89,6 +119,8 @@ public class ShopService {
         existingShop.setPhoneNumber(shop.getPhoneNumber());
         
         Shop updatedShop = shopRepository.save(existingShop);
+        menuCache.shopDetailsChanged(updatedShop.getId());
+        catalogSearchIndex.indexShop(updatedShop);
         
         activityLogService.logActivity("SHOP_UPDATED", "Shop updated: " + shop.getShopName(), updatedShop);
         
@@ -99,6 +131,11 @@ public class ShopService {
         return shopRepository.findByEmail(email);
     }
     
+    // Proxy for the logged-in shop when only the id is needed (no SELECT is issued)
+    public Shop getReference(Long id) {
+        return shopRepository.getReferenceById(id);
+    }
+    
     public Shop findById(Long id) {
         return shopRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Shop not found with id: " + id));
@@ -124,8 +161,19 @@ public class ShopService {
         return shopRepository.findByCityAndApproved(city);
     }
     
+    // Served from the in-memory search index; the LIKE query is only used until the index is built
     public List<Shop> searchShopsByName(String name) {
-        return shopRepository.findByShopNameContainingAndApproved(name);
+        if (!catalogSearchIndex.isReady()) {
+            return shopRepository.findByShopNameContainingAndApproved(name);
+        }
+        List<Long> ids = catalogSearchIndex.searchShops(name, maxSearchResults);
+        Map<Long, Shop> shops = shopRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Shop::getId, Function.identity()));
+        return ids.stream()
+                .map(shops::get)
+                .filter(Objects::nonNull)
+                .filter(s -> Boolean.TRUE.equals(s.getIsApproved()) && Boolean.TRUE.equals(s.getIsActive()))
+                .toList();
     }
     
     public List<Shop> getAllShops() {
@@ -138,12 +186,12 @@ public class ShopService {
                 .setScale(2, RoundingMode.HALF_UP);
         shop.setRating(ratingValue);
         shopRepository.save(shop);
+        menuCache.shopDetailsChanged(shopId);
+        catalogSearchIndex.indexShop(shop);
     }
     
     public void incrementShopOrders(Long shopId) {
-        Shop shop = findById(shopId);
-        shop.setTotalOrders(shop.getTotalOrders() + 1);
-        shopRepository.save(shop);
+        orderCounterService.addShopOrders(shopId, 1);
     }
     
     @Transactional
@@ -176,5 +224,8 @@ public class ShopService {
         
         // Delete the shop (this will cascade to related entities based on JPA mappings)
         shopRepository.delete(shop);
+        menuCache.invalidateShop(shopId);
+        catalogSearchIndex.removeShop(shopId);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(shop.getEmail()));
     }
 }
@@ -1,9 +1,14 @@
 package org.example.service;
 
+import org.example.cache.MenuCache;
+import org.example.model.Shop;
 import org.example.model.User;
 import org.example.model.UserRole;
 import org.example.repository.UserRepository;
+import org.example.search.CatalogSearchIndex;
+import org.example.security.UserAccountChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +29,15 @@ public class UserService {
     @Autowired
     private ActivityLogService activityLogService;
     
+    @Autowired
+    private MenuCache menuCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+    
     public User createUser(User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new RuntimeException("User with email " + user.getEmail() + " already exists");
@@ -47,6 +61,13 @@ public class UserService {
         existingUser.setIsActive(user.getIsActive());
         
         User updatedUser = userRepository.save(existingUser);
+        if (updatedUser.getRole() == UserRole.SHOP) {
+            menuCache.invalidateShop(updatedUser.getId());
+        }
+        if (updatedUser instanceof Shop shop) {
+            catalogSearchIndex.indexShop(shop);
+        }
+        eventPublisher.publishEvent(new UserAccountChangedEvent(updatedUser.getEmail()));
         
         activityLogService.logActivity("USER_UPDATED", "User updated: " + user.getEmail(), updatedUser);
         
@@ -59,10 +80,22 @@ public class UserService {
         
         user.setIsActive(false);
         userRepository.save(user);
+        if (user.getRole() == UserRole.SHOP) {
+            menuCache.invalidateShop(userId);
+        }
+        if (user instanceof Shop shop) {
+            catalogSearchIndex.indexShop(shop);
+        }
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getEmail()));
         
         activityLogService.logActivity("USER_DEACTIVATED", "User deactivated: " + user.getEmail(), user);
     }
     
+    // Stores a password hash re-encoded at login with the current app.password.* settings
+    public void updatePasswordHash(String email, String encodedPassword) {
+        userRepository.updatePasswordByEmail(email, encodedPassword);
+    }
+    
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
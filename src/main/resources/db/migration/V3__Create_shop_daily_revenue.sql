@@ -0,0 +1,11 @@
+-- Daily revenue rollup per shop, maintained incrementally by the application.
+-- A row counts orders that are PAID and not CANCELLED, keyed by the order's creation date.
+CREATE TABLE shop_daily_revenue (
+    shop_id BIGINT NOT NULL,
+    revenue_date DATE NOT NULL,
+    order_count INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (shop_id, revenue_date),
+    FOREIGN KEY (shop_id) REFERENCES shops(id) ON DELETE CASCADE
+);
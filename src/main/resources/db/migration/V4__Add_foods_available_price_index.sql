@@ -0,0 +1,3 @@
+-- Composite index for the price-range browse query (is_available = true AND price BETWEEN ? AND ?),
+-- also lets MySQL return the range already ordered by price
+CREATE INDEX idx_foods_available_price ON foods(is_available, price);
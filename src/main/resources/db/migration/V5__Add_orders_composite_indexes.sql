@@ -0,0 +1,11 @@
+-- Composite indexes for the hot order lookups. Each one starts with the equality column
+-- (shop_id, shop_id + status, customer_id) followed by created_at, so the order board and
+-- history queries read rows already ordered by created_at instead of filesorting every
+-- order of the shop/customer, and COUNT / GROUP BY status per shop are answered from the index alone.
+CREATE INDEX idx_orders_shop_created ON orders(shop_id, created_at DESC);
+CREATE INDEX idx_orders_shop_status_created ON orders(shop_id, status, created_at);
+CREATE INDEX idx_orders_customer_created ON orders(customer_id, created_at DESC);
+
+-- The single-column indexes are left prefixes of the composites above, which also back the foreign keys
+DROP INDEX idx_orders_shop_id ON orders;
+DROP INDEX idx_orders_customer_id ON orders;
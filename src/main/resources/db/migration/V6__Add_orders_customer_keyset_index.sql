@@ -0,0 +1,8 @@
+-- Customer order history is paged with a keyset on (created_at, id), newest first. InnoDB appends
+-- the primary key to secondary indexes in ascending order, so (customer_id, created_at DESC) can
+-- not return ties on created_at as "id DESC" and the paged query fell back to a filesort. Naming
+-- id explicitly with the same direction lets the history pages stop after size + 1 index entries.
+CREATE INDEX idx_orders_customer_created_id ON orders(customer_id, created_at DESC, id DESC);
+
+-- Left prefix of the index above, which also backs the customer foreign key
+DROP INDEX idx_orders_customer_created ON orders;
@@ -0,0 +1,141 @@
+package org.example.Food;
+
+// Compares response size and serialization time of the large admin lists (orders, activity logs,
+// users) across the encodings the API can produce: the old pretty-printed JSON, compact JSON,
+// gzip (as applied by server.compression), CBOR and Smile.
+// Not part of the normal test run; enable with FOOD_BENCHMARK=true and read the table on stdout.
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.example.config.JacksonConfig;
+import org.example.dto.ActivityLogDTO;
+import org.example.dto.OrderDTO;
+import org.example.dto.UserDTO;
+import org.example.model.OrderStatus;
+import org.example.model.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EnabledIfEnvironmentVariable(named = "FOOD_BENCHMARK", matches = "true")
+class ResponseEncodingBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    private final ObjectMapper mapper = new JacksonConfig().objectMapper();
+
+    @Test
+    void compareEncodings() throws IOException {
+        Map<String, Object> payloads = new LinkedHashMap<>();
+        payloads.put("orders", orders());
+        payloads.put("activity-logs", activityLogs());
+        payloads.put("users", users());
+
+        Map<String, ObjectWriter> encodings = new LinkedHashMap<>();
+        encodings.put("json-pretty", mapper.writerWithDefaultPrettyPrinter());
+        encodings.put("json", mapper.writer());
+        encodings.put("cbor", mapper.copyWith(new CBORFactory()).writer());
+        encodings.put("smile", mapper.copyWith(new SmileFactory()).writer());
+
+        System.out.printf("%-14s %-12s %12s %12s %10s %10s%n", "payload", "encoding", "bytes", "gzip bytes", "ms", "gzip ms");
+        for (Map.Entry<String, Object> payload : payloads.entrySet()) {
+            long prettyBytes = 0;
+            long compactBytes = 0;
+            long compactGzipBytes = 0;
+            for (Map.Entry<String, ObjectWriter> encoding : encodings.entrySet()) {
+                Measurement plain = measure(encoding.getValue(), payload.getValue(), false);
+                Measurement gzip = measure(encoding.getValue(), payload.getValue(), true);
+                System.out.printf("%-14s %-12s %12d %12d %10.2f %10.2f%n", payload.getKey(), encoding.getKey(),
+                        plain.bytes, gzip.bytes, plain.millis, gzip.millis);
+                if (encoding.getKey().equals("json-pretty")) {
+                    prettyBytes = plain.bytes;
+                } else if (encoding.getKey().equals("json")) {
+                    compactBytes = plain.bytes;
+                    compactGzipBytes = gzip.bytes;
+                }
+            }
+            assertTrue(compactBytes < prettyBytes, "compact JSON is not smaller than pretty JSON");
+            assertTrue(compactGzipBytes < compactBytes, "gzip did not shrink " + payload.getKey());
+        }
+    }
+
+    // Best of ITERATIONS runs after warm-up, to keep GC and JIT noise out of the comparison
+    private static Measurement measure(ObjectWriter writer, Object value, boolean gzip) throws IOException {
+        long bytes = 0;
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+            long start = System.nanoTime();
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+            if (gzip) {
+                try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                    writer.writeValue(out, value);
+                }
+            } else {
+                writer.writeValue(buffer, value);
+            }
+            long elapsed = System.nanoTime() - start;
+            if (i >= WARMUP) {
+                best = Math.min(best, elapsed);
+            }
+            bytes = buffer.size();
+        }
+        return new Measurement(bytes, best / 1_000_000.0);
+    }
+
+    private static List<OrderDTO> orders() {
+        List<OrderDTO> orders = new ArrayList<>(ROWS);
+        LocalDateTime now = LocalDateTime.now();
+        OrderStatus[] statuses = OrderStatus.values();
+        for (int i = 0; i < ROWS; i++) {
+            LocalDateTime createdAt = now.minusMinutes(i);
+            orders.add(new OrderDTO((long) i, "ORD-" + (1_700_000_000_000L + i), BigDecimal.valueOf(500 + i % 4000, 2),
+                    statuses[i % statuses.length], i % 3 == 0 ? PaymentStatus.PENDING : PaymentStatus.PAID,
+                    (i % 250) + " Main Street, Colombo", i % 5 == 0 ? "Leave at the gate" : null,
+                    createdAt.plusMinutes(40), i % 2 == 0 ? createdAt.plusMinutes(35) : null, createdAt, createdAt.plusMinutes(5),
+                    (long) (i % 900), "Customer " + (i % 900), "customer" + (i % 900) + "@example.com",
+                    (long) (i % 40), "Shop " + (i % 40), (i % 40) + " Market Road, Kandy"));
+        }
+        return orders;
+    }
+
+    private static List<ActivityLogDTO> activityLogs() {
+        List<ActivityLogDTO> logs = new ArrayList<>(ROWS);
+        LocalDateTime now = LocalDateTime.now();
+        String[] actions = {"ORDER_CREATED", "ORDER_STATUS_UPDATED", "FOOD_UPDATED", "USER_LOGIN"};
+        for (int i = 0; i < ROWS; i++) {
+            String action = actions[i % actions.length];
+            logs.add(new ActivityLogDTO((long) i, action, action.toLowerCase().replace('_', ' ') + " #" + i, "Order", (long) i,
+                    "10.0." + (i % 256) + "." + (i % 200), "Mozilla/5.0 (Linux; Android 14) Mobile Safari/537.36",
+                    "User " + (i % 900), "user" + (i % 900) + "@example.com", now.minusSeconds(i * 7L)));
+        }
+        return logs;
+    }
+
+    private static List<UserDTO> users() {
+        List<UserDTO> users = new ArrayList<>(ROWS);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ROWS; i++) {
+            users.add(new UserDTO((long) i, "user" + i + "@example.com", "User " + i, "+9477" + String.format("%07d", i),
+                    i % 10 != 0, i % 20 == 0 ? "SHOP" : "CUSTOMER", now.minusDays(i % 365), now.minusHours(i % 48)));
+        }
+        return users;
+    }
+
+    private record Measurement(long bytes, double millis) {
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderStatusTests {
+
+    @Test
+    void ordersMoveOneStepForwardOrAreCancelledUntilDelivered() {
+        Map<OrderStatus, Set<OrderStatus>> allowed = Map.of(
+                OrderStatus.PENDING, EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.CANCELLED),
+                OrderStatus.CONFIRMED, EnumSet.of(OrderStatus.PREPARING, OrderStatus.CANCELLED),
+                OrderStatus.PREPARING, EnumSet.of(OrderStatus.READY_FOR_DELIVERY, OrderStatus.CANCELLED),
+                OrderStatus.READY_FOR_DELIVERY, EnumSet.of(OrderStatus.OUT_FOR_DELIVERY, OrderStatus.CANCELLED),
+                OrderStatus.OUT_FOR_DELIVERY, EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED),
+                OrderStatus.DELIVERED, EnumSet.noneOf(OrderStatus.class),
+                OrderStatus.CANCELLED, EnumSet.noneOf(OrderStatus.class));
+
+        for (OrderStatus from : OrderStatus.values()) {
+            for (OrderStatus to : OrderStatus.values()) {
+                assertEquals(allowed.get(from).contains(to), from.canTransitionTo(to), from + " -> " + to);
+            }
+        }
+    }
+}
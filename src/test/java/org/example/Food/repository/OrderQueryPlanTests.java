@@ -0,0 +1,286 @@
+package org.example.repository;
+
+// Member: Piranavan - Order management
+// Checks that the hot order lookups in OrderRepository are served by the V5/V6 composite indexes.
+// Each test calls the real repository method, captures the SQL and parameters Hibernate sends
+// (through a recording DataSource wrapper), and runs EXPLAIN on exactly that statement against a
+// local MySQL database migrated by Flyway. Set FOOD_TEST_DB_URL (and FOOD_TEST_DB_USER /
+// FOOD_TEST_DB_PASSWORD) to enable it, e.g.
+//   FOOD_TEST_DB_URL=jdbc:mysql://localhost:3306/food_db
+
+import org.example.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EnabledIfEnvironmentVariable(named = "FOOD_TEST_DB_URL", matches = ".+")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderQueryPlanTests {
+
+    private static final Pattern ORDERS_ALIAS = Pattern.compile("(?i)\\bfrom\\s+orders\\s+(?:as\\s+)?(\\w+)");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("FOOD_TEST_DB_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv("FOOD_TEST_DB_USER"));
+        registry.add("spring.datasource.password", () -> System.getenv("FOOD_TEST_DB_PASSWORD"));
+    }
+
+    @TestConfiguration
+    static class RecordingDataSourceConfig {
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? StatementRecorder.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private long shopId;
+    private long customerId;
+
+    @BeforeEach
+    void pickIds() throws SQLException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT shop_id, customer_id FROM orders LIMIT 1")) {
+            boolean hasOrders = rs.next();
+            shopId = hasOrders ? rs.getLong("shop_id") : 1L;
+            customerId = hasOrders ? rs.getLong("customer_id") : 1L;
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        StatementRecorder.clear();
+    }
+
+    @Test
+    void shopOrdersNewestFirstUseShopCreatedIndex() throws SQLException {
+        Plan plan = explainOrders(() -> orderRepository.findByShopIdOrderByCreatedAtDesc(shopId));
+        assertEquals("idx_orders_shop_created", plan.key);
+        assertNoFilesort(plan);
+    }
+
+    @Test
+    void recentShopOrdersUseShopCreatedIndex() throws SQLException {
+        Plan plan = explainOrders(() -> orderRepository.findRecentByShopId(shopId, PageRequest.of(0, 10)));
+        assertEquals("idx_orders_shop_created", plan.key);
+        assertNoFilesort(plan);
+    }
+
+    @Test
+    void shopOrdersByStatusUseShopStatusCreatedIndex() throws SQLException {
+        Plan plan = explainOrders(() -> orderRepository.findByShopIdAndStatus(shopId, OrderStatus.PENDING));
+        assertEquals("idx_orders_shop_status_created", plan.key);
+        assertNoFilesort(plan);
+    }
+
+    @Test
+    void shopOrdersInDateRangeUseShopCreatedIndex() throws SQLException {
+        Plan plan = explainOrders(() -> orderRepository.findByShopIdAndCreatedAtBetween(shopId,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 31, 23, 59, 59)));
+        assertTrue(plan.key.startsWith("idx_orders_shop_"), "unexpected index " + plan.key);
+        assertNoFilesort(plan);
+    }
+
+    @Test
+    void customerOrdersNewestFirstUseCustomerCreatedIdIndex() throws SQLException {
+        Plan plan = explainOrders(() -> orderRepository.findByCustomerIdOrderByCreatedAtDesc(customerId));
+        assertEquals("idx_orders_customer_created_id", plan.key);
+        assertNoFilesort(plan);
+    }
+
+    @Test
+    void customerHistoryKeysetPageUsesCustomerCreatedIdIndex() throws SQLException {
+        Plan plan = explainOrders(() -> orderRepository.findCustomerOrderSummariesBefore(customerId,
+                LocalDateTime.of(2030, 1, 1, 0, 0), Long.MAX_VALUE, PageRequest.of(0, 21)));
+        assertEquals("idx_orders_customer_created_id", plan.key);
+        assertNoFilesort(plan);
+    }
+
+    @Test
+    void customerTrackingSnapshotUsesCustomerCreatedIdIndex() throws SQLException {
+        Plan plan = explainOrders(() -> orderRepository.findTrackingSnapshot(customerId,
+                LocalDateTime.of(2024, 1, 1, 0, 0), PageRequest.of(0, 20)));
+        assertEquals("idx_orders_customer_created_id", plan.key);
+        assertNoFilesort(plan);
+    }
+
+    @Test
+    void shopOrderCountIsIndexOnly() throws SQLException {
+        Plan plan = explainOrders(() -> orderRepository.countByShopId(shopId));
+        assertTrue(plan.key.startsWith("idx_orders_shop_"), "unexpected index " + plan.key);
+        assertTrue(plan.extra.contains("Using index"), "not index-only: " + plan.extra);
+    }
+
+    @Test
+    void shopStatusCountsAreIndexOnly() throws SQLException {
+        Plan plan = explainOrders(() -> orderRepository.countByStatusForShop(shopId));
+        assertEquals("idx_orders_shop_status_created", plan.key);
+        assertTrue(plan.extra.contains("Using index"), "not index-only: " + plan.extra);
+        assertFalse(plan.extra.contains("Using temporary"), "grouping needs a temporary table: " + plan.extra);
+    }
+
+    private static void assertNoFilesort(Plan plan) {
+        assertFalse(plan.extra.contains("Using filesort"), "query needs a filesort: " + plan.extra);
+    }
+
+    // Runs the repository call, then EXPLAINs the statement it sent with the same parameter bindings and
+    // returns the plan row of the orders table (not simply the first row: MySQL may start the join elsewhere)
+    private Plan explainOrders(Runnable repositoryCall) throws SQLException {
+        StatementRecorder.clear();
+        repositoryCall.run();
+        RecordedStatement recorded = StatementRecorder.last();
+        assertNotNull(recorded, "the repository call sent no SQL");
+        Matcher alias = ORDERS_ALIAS.matcher(recorded.sql);
+        assertTrue(alias.find(), "no orders table in: " + recorded.sql);
+        String ordersAlias = alias.group(1);
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement explain = StatementRecorder.unwrap(connection).prepareStatement("EXPLAIN " + recorded.sql)) {
+            recorded.bindTo(explain);
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    if (ordersAlias.equalsIgnoreCase(rs.getString("table"))) {
+                        String key = rs.getString("key");
+                        String extra = rs.getString("Extra");
+                        return new Plan(key != null ? key : "", extra != null ? extra : "");
+                    }
+                }
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        throw new AssertionError("EXPLAIN has no row for " + ordersAlias + ": " + recorded.sql);
+    }
+
+    private record Plan(String key, String extra) {
+    }
+
+    // SQL of a prepared statement plus the setXxx calls made on it, replayable on another statement
+    private record RecordedStatement(String sql, List<Object[]> bindings) {
+        void bindTo(PreparedStatement target) throws SQLException {
+            for (Object[] binding : bindings) {
+                Method setter = (Method) binding[0];
+                try {
+                    setter.invoke(target, (Object[]) binding[1]);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof SQLException sql) {
+                        throw sql;
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+    }
+
+    // JDK proxies around DataSource -> Connection -> PreparedStatement that record executed statements
+    private static final class StatementRecorder {
+        private static final List<RecordedStatement> executed = new CopyOnWriteArrayList<>();
+
+        static void clear() {
+            executed.clear();
+        }
+
+        static RecordedStatement last() {
+            return executed.isEmpty() ? null : executed.get(executed.size() - 1);
+        }
+
+        static DataSource wrap(DataSource target) {
+            return proxy(DataSource.class, target, (method, args, result) ->
+                    result instanceof Connection connection ? wrapConnection(connection) : result);
+        }
+
+        // The raw connection, so EXPLAIN statements are not recorded themselves
+        static Connection unwrap(Connection connection) throws SQLException {
+            return connection.isWrapperFor(Connection.class) ? connection.unwrap(Connection.class) : connection;
+        }
+
+        private static Connection wrapConnection(Connection target) {
+            return proxy(Connection.class, target, (method, args, result) -> {
+                if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                    return wrapStatement(statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement wrapStatement(PreparedStatement target, String sql) {
+            List<Object[]> bindings = new ArrayList<>();
+            return proxy(PreparedStatement.class, target, (method, args, result) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    bindings.add(new Object[]{method, args.clone()});
+                } else if (name.equals("clearParameters")) {
+                    bindings.clear();
+                } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                    executed.add(new RecordedStatement(sql, List.copyOf(bindings)));
+                }
+                return result;
+            });
+        }
+
+        private interface AfterCall {
+            Object apply(Method method, Object[] args, Object result) throws Throwable;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, AfterCall after) {
+            return (T) Proxy.newProxyInstance(OrderQueryPlanTests.class.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("unwrap") && args != null && args[0] == type) {
+                            return target;
+                        }
+                        Object result;
+                        try {
+                            result = method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        return after.apply(method, args, result);
+                    });
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FoodFacetIndexTests {
+
+    private static FoodFacetIndex.FoodEntry food(long id, long shopId, String category, String price,
+                                                 String rating, int orders, boolean available) {
+        return new FoodFacetIndex.FoodEntry(id, shopId, category, new BigDecimal(price),
+                new BigDecimal(rating), orders, available);
+    }
+
+    // Buckets 0-5, 5-10, 10+; shop 1 in Hanoi, shop 2 in Hue, shop 3 hidden
+    private static FoodFacetIndex sampleIndex() {
+        FoodFacetIndex index = new FoodFacetIndex(new long[]{1000, 500});
+        index.putShop(1L, "Hanoi", true);
+        index.putShop(2L, "Hue", true);
+        index.putShop(3L, "Hanoi", false);
+        index.put(food(1, 1, "Pizza", "4.99", "4.5", 10, true));
+        index.put(food(2, 1, "Pizza", "5.00", "3.0", 50, true));
+        index.put(food(3, 1, "Drinks", "1.50", "4.0", 5, true));
+        index.put(food(4, 2, "Pizza", "12.00", "5.0", 1, true));
+        index.put(food(5, 2, "Drinks", "9.99", "2.0", 0, false));
+        index.put(food(6, 3, "Pizza", "3.00", "5.0", 99, true));
+        return index;
+    }
+
+    @Test
+    void priceBucketsIncludeTheirLowerBoundary() {
+        FoodFacetIndex.Result result = sampleIndex().query(new FoodFacetIndex.Query());
+        assertEquals(Map.of("0-5", 2, "5-10", 1, "10+", 1), result.priceCounts());
+        assertEquals(List.of("0-5", "5-10", "10+"), List.copyOf(result.priceCounts().keySet()));
+    }
+
+    @Test
+    void hiddenShopsAndUnavailableFoodsAreExcludedByDefault() {
+        FoodFacetIndex index = sampleIndex();
+        assertEquals(List.of(4L, 1L, 3L, 2L), index.query(new FoodFacetIndex.Query()).ids());
+        assertEquals(List.of(5L), index.query(new FoodFacetIndex.Query().available(false)).ids());
+        assertEquals(5, index.query(new FoodFacetIndex.Query().available(null)).total());
+    }
+
+    @Test
+    void filtersIntersect() {
+        FoodFacetIndex.Result result = sampleIndex().query(new FoodFacetIndex.Query()
+                .categories(List.of("pizza"))
+                .city(" HANOI ")
+                .priceRange(new BigDecimal("4.99"), new BigDecimal("5.00"))
+                .minRating(new BigDecimal("4.0")));
+        assertEquals(List.of(1L), result.ids());
+        assertEquals(1, result.total());
+    }
+
+    @Test
+    void facetCountsIgnoreTheirOwnFilter() {
+        FoodFacetIndex.Result result = sampleIndex().query(new FoodFacetIndex.Query()
+                .categories(List.of("Pizza"))
+                .priceRange(new BigDecimal("5"), null));
+        assertEquals(List.of(4L, 2L), result.ids());
+        // Category counts apply the price filter but not the category filter
+        assertEquals(Map.of("Pizza", 2), result.categoryCounts());
+        // Price counts apply the category filter but not the price filter
+        assertEquals(Map.of("0-5", 1, "5-10", 1, "10+", 1), result.priceCounts());
+    }
+
+    @Test
+    void severalCategoriesAreAUnion() {
+        FoodFacetIndex.Result result = sampleIndex().query(new FoodFacetIndex.Query()
+                .categories(List.of("Pizza", "Drinks"))
+                .city("Hanoi"));
+        assertEquals(3, result.total());
+        assertEquals(Map.of("Pizza", 2, "Drinks", 1), result.categoryCounts());
+    }
+
+    @Test
+    void textMatchesRestrictAndOrderByRelevance() {
+        FoodFacetIndex.Result result = sampleIndex().query(new FoodFacetIndex.Query()
+                .textMatches(List.of(3L, 6L, 2L, 99L))
+                .sort(FoodFacetIndex.Sort.RELEVANCE));
+        assertEquals(List.of(3L, 2L), result.ids());
+    }
+
+    @Test
+    void sortsAndPages() {
+        FoodFacetIndex index = sampleIndex();
+        assertEquals(List.of(3L, 1L, 2L, 4L),
+                index.query(new FoodFacetIndex.Query().sort(FoodFacetIndex.Sort.PRICE_ASC)).ids());
+        assertEquals(List.of(2L, 1L, 3L, 4L),
+                index.query(new FoodFacetIndex.Query().sort(FoodFacetIndex.Sort.POPULAR)).ids());
+        FoodFacetIndex.Result page = index.query(new FoodFacetIndex.Query()
+                .sort(FoodFacetIndex.Sort.PRICE_DESC).page(1, 3));
+        assertEquals(List.of(3L), page.ids());
+        assertEquals(4, page.total());
+    }
+
+    @Test
+    void shopChangesMoveFoodsBetweenCities() {
+        FoodFacetIndex index = sampleIndex();
+        index.putShop(1L, "Hue", true);
+        assertEquals(0, index.query(new FoodFacetIndex.Query().city("Hanoi")).total());
+        assertEquals(4, index.query(new FoodFacetIndex.Query().city("Hue")).total());
+
+        index.putShop(2L, "Hue", false);
+        assertEquals(List.of(1L, 3L, 2L), index.query(new FoodFacetIndex.Query().city("Hue")).ids());
+    }
+
+    @Test
+    void removalsDropFoodsAndEmptyCategories() {
+        FoodFacetIndex index = sampleIndex();
+        index.remove(3L);
+        index.removeShop(2L);
+        FoodFacetIndex.Result result = index.query(new FoodFacetIndex.Query().available(null));
+        assertEquals(List.of(1L, 2L), result.ids());
+        assertEquals(Map.of("Pizza", 2), result.categoryCounts());
+        assertEquals(3, index.size());
+
+        index.put(food(7, 1, "Pizza", "6.00", "1.0", 0, true));
+        assertEquals(4, index.size());
+        assertEquals(3, index.query(new FoodFacetIndex.Query()).total());
+    }
+
+    @Test
+    void priceRangeCoversAvailableFoodsAndRebuildsAfterWrites() {
+        FoodFacetIndex index = sampleIndex();
+        SortedPriceIndex.Page page = index.priceRange(new BigDecimal("4.00"), new BigDecimal("5.00"), false, 0, 10);
+        assertEquals(List.of(1L, 2L), page.ids());
+
+        index.put(food(2, 1, "Pizza", "5.00", "3.0", 50, false));
+        page = index.priceRange(new BigDecimal("4.99"), new BigDecimal("5.00"), true, 0, 10);
+        assertEquals(List.of(1L), page.ids());
+        assertEquals(1, page.total());
+    }
+}
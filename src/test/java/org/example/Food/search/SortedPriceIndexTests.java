@@ -0,0 +1,58 @@
+package org.example.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SortedPriceIndexTests {
+
+    // Prices 1.00, 2.50, 2.50, 2.50, 4.00, 9.99 with ties ordered by id
+    private final SortedPriceIndex index = new SortedPriceIndex(
+            new long[]{100, 250, 250, 250, 400, 999},
+            new long[]{7, 2, 5, 8, 1, 3});
+
+    @Test
+    void rangeBoundsAreInclusive() {
+        SortedPriceIndex.Page page = index.range(250, 400, false, 0, 10);
+        assertEquals(List.of(2L, 5L, 8L, 1L), page.ids());
+        assertEquals(4, page.total());
+
+        assertEquals(List.of(2L, 5L, 8L), index.range(250, 250, false, 0, 10).ids());
+        assertEquals(List.of(2L, 5L, 8L), index.range(101, 399, false, 0, 10).ids());
+    }
+
+    @Test
+    void openBoundsCoverTheWholeIndex() {
+        SortedPriceIndex.Page page = index.range(Long.MIN_VALUE, Long.MAX_VALUE, false, 0, 100);
+        assertEquals(List.of(7L, 2L, 5L, 8L, 1L, 3L), page.ids());
+        assertEquals(index.size(), page.total());
+    }
+
+    @Test
+    void descendingWalksTheRangeBackwards() {
+        assertEquals(List.of(1L, 8L, 5L, 2L), index.range(250, 400, true, 0, 10).ids());
+        assertEquals(List.of(8L, 5L), index.range(250, 400, true, 1, 2).ids());
+    }
+
+    @Test
+    void pagesSliceTheRange() {
+        assertEquals(List.of(7L, 2L), index.range(0, 999, false, 0, 2).ids());
+        assertEquals(List.of(5L, 8L), index.range(0, 999, false, 2, 2).ids());
+        assertEquals(List.of(3L), index.range(0, 999, false, 5, 2).ids());
+
+        SortedPriceIndex.Page past = index.range(0, 999, false, 6, 2);
+        assertEquals(List.of(), past.ids());
+        assertEquals(6, past.total());
+    }
+
+    @Test
+    void emptyRangesReportZero() {
+        assertEquals(0, index.range(500, 900, false, 0, 10).total());
+        assertEquals(0, index.range(1000, 2000, false, 0, 10).total());
+        assertEquals(0, index.range(400, 100, false, 0, 10).total());
+        assertEquals(List.of(), index.range(100, 999, false, 0, 0).ids());
+        assertEquals(0, new SortedPriceIndex(new long[0], new long[0]).range(0, 100, false, 0, 10).total());
+    }
+}
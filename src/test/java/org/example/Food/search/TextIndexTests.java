@@ -0,0 +1,120 @@
+package org.example.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextIndexTests {
+
+    private static TextIndex.Document food(long id, String name, String category) {
+        return new TextIndex.Document(id, 0, 0).field(name, 3.0f).field(category, 2.0f);
+    }
+
+    @Test
+    void tokenizeLowercasesStripsAccentsAndSplitsOnPunctuation() {
+        assertEquals(List.of("creme", "brulee", "2", "pcs"), TextIndex.tokenize("Cr\u00e8me Br\u00fbl\u00e9e, 2 PCS!"));
+        assertEquals(List.of(), TextIndex.tokenize("  "));
+        assertEquals(List.of(), TextIndex.tokenize(null));
+    }
+
+    @Test
+    void tokenizeDoesNotDependOnTheDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            assertEquals(List.of("iskender", "pita"), TextIndex.tokenize("ISKENDER PITA"));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void editDistanceCountsSubstitutionsInsertionsAndTranspositions() {
+        assertTrue(TextIndex.withinEditDistance("pizza", "pizza", 0));
+        assertTrue(TextIndex.withinEditDistance("piza", "pizza", 1));
+        assertTrue(TextIndex.withinEditDistance("pizza", "pizze", 1));
+        assertTrue(TextIndex.withinEditDistance("pziza", "pizza", 1));
+        assertTrue(TextIndex.withinEditDistance("brgr", "burger", 2));
+        assertFalse(TextIndex.withinEditDistance("brgr", "burger", 1));
+        assertFalse(TextIndex.withinEditDistance("burger", "pizza", 2));
+    }
+
+    @Test
+    void exactPrefixAndFuzzyMatchesAreFound() {
+        TextIndex index = new TextIndex();
+        index.put(food(1, "Margherita Pizza", "Italian"));
+        index.put(food(2, "Pizzeria Special", "Italian"));
+        index.put(food(3, "Cheese Burger", "Fast food"));
+
+        assertEquals(List.of(1L), index.search("pizza", 10));
+        assertEquals(List.of(1L, 2L), index.search("pizz", 10).stream().sorted().toList());
+        assertEquals(List.of(1L), index.search("piza", 10));
+        assertEquals(List.of(3L), index.search("burgr", 10));
+    }
+
+    @Test
+    void shortTermsMatchByPrefixOnly() {
+        TextIndex index = new TextIndex();
+        index.put(food(1, "Pizza", "Italian"));
+        assertEquals(List.of(1L), index.search("p", 10));
+        assertEquals(List.of(), index.search("pz", 10));
+    }
+
+    @Test
+    void everyQueryTermMustMatch() {
+        TextIndex index = new TextIndex();
+        index.put(food(1, "Chicken Burger", "Fast food"));
+        index.put(food(2, "Chicken Pizza", "Italian"));
+        assertEquals(List.of(2L), index.search("chicken pizza", 10));
+        assertEquals(List.of(), index.search("chicken sushi", 10));
+    }
+
+    @Test
+    void exactMatchOutranksPrefixAndRatingBreaksTies() {
+        TextIndex index = new TextIndex();
+        index.put(new TextIndex.Document(1L, 0, 0).field("Tea cake", 3.0f));
+        index.put(new TextIndex.Document(2L, 0, 0).field("Teapot special", 3.0f));
+        assertEquals(List.of(1L, 2L), index.search("tea", 10));
+
+        index.put(new TextIndex.Document(3L, 1.0, 0).field("Pasta", 3.0f));
+        index.put(new TextIndex.Document(4L, 5.0, 0).field("Pasta", 3.0f));
+        assertEquals(List.of(4L, 3L), index.search("pasta", 10));
+        assertEquals(List.of(4L), index.search("pasta", 1));
+    }
+
+    @Test
+    void categoryWeighsLessThanName() {
+        TextIndex index = new TextIndex();
+        index.put(food(1, "Vegan bowl", "Salad"));
+        index.put(food(2, "Salad", "Vegan"));
+        assertEquals(List.of(2L, 1L), index.search("salad", 10));
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsTerms() {
+        TextIndex index = new TextIndex();
+        index.put(food(1, "Pizza", "Italian"));
+        index.put(food(1, "Burger", "Fast food"));
+        assertEquals(List.of(), index.search("pizza", 10));
+        assertEquals(List.of(1L), index.search("burger", 10));
+        assertEquals(1, index.size());
+
+        index.remove(1L);
+        assertEquals(List.of(), index.search("burger", 10));
+        assertEquals(0, index.size());
+        assertEquals(0, index.vocabularySize());
+    }
+
+    @Test
+    void emptyQueryOrLimitMatchesNothing() {
+        TextIndex index = new TextIndex();
+        index.put(food(1, "Pizza", "Italian"));
+        assertEquals(List.of(), index.search("", 10));
+        assertEquals(List.of(), index.search("pizza", 0));
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.security;
+
+import org.example.model.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AuthTokenServiceTests {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final Instant NOW = Instant.parse("2025-03-01T12:00:00Z");
+
+    private static AuthTokenService service(Instant now) {
+        return new AuthTokenService("stateless", SECRET, 60, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static AuthenticatedUser user() {
+        return new AuthenticatedUser(42L, "shop@example.com", "Corner Shop", UserRole.SHOP, true);
+    }
+
+    @Test
+    void issuedTokenVerifiesOnAnotherInstanceWithTheSameSecret() {
+        String token = service(NOW).issue(user());
+        AuthenticatedUser verified = service(NOW.plusSeconds(30)).verify(token);
+        assertNotNull(verified);
+        assertEquals(42L, verified.getId());
+        assertEquals("shop@example.com", verified.getEmail());
+        assertEquals(UserRole.SHOP, verified.getRole());
+    }
+
+    @Test
+    void tamperedSignatureIsRejected() {
+        String token = service(NOW).issue(user());
+        int dot = token.indexOf('.');
+        char first = token.charAt(dot + 1);
+        String tampered = token.substring(0, dot + 1) + (first == 'A' ? 'B' : 'A') + token.substring(dot + 2);
+        assertNull(service(NOW).verify(tampered));
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        String token = service(NOW).issue(user());
+        String signature = token.substring(token.indexOf('.'));
+        long expiresAt = NOW.plus(Duration.ofMinutes(60)).getEpochSecond();
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("42|ADMIN|" + expiresAt + "|shop@example.com").getBytes(StandardCharsets.UTF_8));
+        assertNull(service(NOW).verify(forged + signature));
+    }
+
+    @Test
+    void tokenFromAnotherSecretIsRejected() {
+        String token = new AuthTokenService("stateless", SECRET.toUpperCase(), 60, Clock.fixed(NOW, ZoneOffset.UTC)).issue(user());
+        assertNull(service(NOW).verify(token));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = service(NOW).issue(user());
+        assertNotNull(service(NOW.plus(Duration.ofMinutes(59))).verify(token));
+        assertNull(service(NOW.plus(Duration.ofMinutes(60))).verify(token));
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        AuthTokenService service = service(NOW);
+        assertNull(service.verify(null));
+        assertNull(service.verify(""));
+        assertNull(service.verify("no-dot"));
+        assertNull(service.verify("payload."));
+        assertNull(service.verify(".signature"));
+        assertNull(service.verify("!!!.###"));
+        assertNull(service.verify(service.issue(user()) + ".extra"));
+    }
+
+    @Test
+    void statelessModeRequiresALongEnoughSecret() {
+        assertThrows(IllegalStateException.class, () -> new AuthTokenService("stateless", "", 60));
+        assertThrows(IllegalStateException.class, () -> new AuthTokenService("stateless", null, 60));
+        assertThrows(IllegalStateException.class, () -> new AuthTokenService("stateless", "too-short-secret", 60));
+        assertDoesNotThrow(() -> new AuthTokenService("session", "", 60));
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderNumberGeneratorTests {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 500_000;
+
+    // 4 million ids from 8 threads racing on one generator: all unique, increasing within each thread
+    @Test
+    void concurrentIdsAreUniqueAndMonotonicPerThread() throws Exception {
+        OrderNumberGenerator generator = new OrderNumberGenerator(3);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    long[] ids = new long[IDS_PER_THREAD];
+                    start.await();
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            long[] all = new long[THREADS * IDS_PER_THREAD];
+            int offset = 0;
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get(2, TimeUnit.MINUTES);
+                for (int i = 1; i < ids.length; i++) {
+                    assertTrue(ids[i] > ids[i - 1], "ids went backwards within a thread at index " + i);
+                }
+                System.arraycopy(ids, 0, all, offset, ids.length);
+                offset += ids.length;
+            }
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                assertNotEquals(all[i - 1], all[i], "duplicate id " + all[i]);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // A stuck clock exhausts the 4096 sequence slots of a millisecond many times over
+    @Test
+    void sequenceOverflowBorrowsTheNextMillisecond() {
+        long now = OrderNumberGenerator.EPOCH_MILLIS + 1_000;
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, () -> now);
+        String previous = generator.next();
+        for (int i = 0; i < 20_000; i++) {
+            String next = generator.next();
+            assertTrue(next.compareTo(previous) > 0, previous + " >= " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void clockGoingBackwardsKeepsNumbersIncreasing() {
+        AtomicLong clock = new AtomicLong(OrderNumberGenerator.EPOCH_MILLIS + 5_000_000);
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, clock::get);
+        long before = generator.nextId();
+        clock.addAndGet(-60_000);
+        long after = generator.nextId();
+        assertTrue(after > before);
+    }
+
+    @Test
+    void nodeIdIsEmbeddedSoInstancesNeverCollide() {
+        long now = OrderNumberGenerator.EPOCH_MILLIS + 42;
+        long a = new OrderNumberGenerator(1, () -> now).nextId();
+        long b = new OrderNumberGenerator(2, () -> now).nextId();
+        assertNotEquals(a, b);
+        assertEquals(1, (a >>> OrderNumberGenerator.SEQUENCE_BITS) & OrderNumberGenerator.MAX_NODE_ID);
+        assertEquals(2, (b >>> OrderNumberGenerator.SEQUENCE_BITS) & OrderNumberGenerator.MAX_NODE_ID);
+    }
+
+    @Test
+    void formatIsFixedWidthAndReadable() {
+        String number = new OrderNumberGenerator(7).next();
+        assertTrue(number.matches("ORD-[0-9A-HJKMNP-TV-Z]{6}-[0-9A-HJKMNP-TV-Z]{7}"), number);
+        assertEquals("ORD-000000-0000000", OrderNumberGenerator.format(0));
+    }
+
+    @Test
+    void rejectsNodeIdOutOfRange() {
+        assertThrows(IllegalStateException.class, () -> new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID + 1));
+        assertThrows(IllegalStateException.class, () -> new OrderNumberGenerator(-1));
+    }
+}
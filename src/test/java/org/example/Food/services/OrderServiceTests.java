@@ -0,0 +1,169 @@
+package org.example.service;
+
+import org.example.dto.OrderStatusOutcomeDTO;
+import org.example.model.ActivityLog;
+import org.example.model.Customer;
+import org.example.model.Order;
+import org.example.model.OrderStatus;
+import org.example.model.Shop;
+import org.example.push.OrderChangedEvent;
+import org.example.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTests {
+
+    private static final Long SHOP_ID = 7L;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ActivityLogService activityLogService;
+
+    @Mock
+    private RevenueRollupService revenueRollupService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @InjectMocks
+    private OrderService orderService;
+
+    private static Order order(long id, OrderStatus status) {
+        Shop shop = new Shop();
+        shop.setId(SHOP_ID);
+        Customer customer = new Customer();
+        customer.setId(100L + id);
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderNumber("ORD-" + id);
+        order.setShop(shop);
+        order.setCustomer(customer);
+        order.setStatus(status);
+        return order;
+    }
+
+    @Test
+    void updatesValidTransitionsAndReportsTheRestInRequestOrder() {
+        // Order 4 belongs to another shop, so the shop-scoped query does not return it
+        List<Long> requested = List.of(4L, 1L, 2L, 3L);
+        when(orderRepository.findByIdInAndShopIdForUpdate(any(), eq(SHOP_ID))).thenReturn(List.of(
+                order(1, OrderStatus.PREPARING),
+                order(2, OrderStatus.READY_FOR_DELIVERY),
+                order(3, OrderStatus.DELIVERED)));
+
+        List<OrderStatusOutcomeDTO> outcomes = orderService.updateOrderStatuses(SHOP_ID, requested,
+                OrderStatus.READY_FOR_DELIVERY);
+
+        assertEquals(List.of(4L, 1L, 2L, 3L), outcomes.stream().map(OrderStatusOutcomeDTO::orderId).toList());
+        assertEquals(List.of(OrderStatusOutcomeDTO.Result.NOT_FOUND, OrderStatusOutcomeDTO.Result.UPDATED,
+                        OrderStatusOutcomeDTO.Result.UNCHANGED, OrderStatusOutcomeDTO.Result.INVALID_TRANSITION),
+                outcomes.stream().map(OrderStatusOutcomeDTO::result).toList());
+        assertNull(outcomes.get(0).orderNumber());
+        assertEquals(OrderStatus.PREPARING, outcomes.get(1).previousStatus());
+        assertEquals(OrderStatus.READY_FOR_DELIVERY, outcomes.get(1).status());
+        assertEquals(OrderStatus.DELIVERED, outcomes.get(3).status());
+
+        verify(orderRepository).updateStatusByIdInAndShopId(eq(List.of(1L)), eq(SHOP_ID),
+                eq(OrderStatus.READY_FOR_DELIVERY), any(LocalDateTime.class), isNull(), isNull());
+        verify(revenueRollupService, times(1)).applyChange(any(Order.class), eq(false));
+        ArgumentCaptor<OrderChangedEvent> event = ArgumentCaptor.forClass(OrderChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(OrderChangedEvent.Type.STATUS_CHANGED, event.getValue().type());
+        assertEquals(1L, event.getValue().orderId());
+        assertEquals(OrderStatus.PREPARING, event.getValue().previousStatus());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ActivityLog>> logs = ArgumentCaptor.forClass(List.class);
+        verify(activityLogService).logActivities(logs.capture());
+        assertEquals(1, logs.getValue().size());
+    }
+
+    @Test
+    void otherShopsOrdersAreNotFoundAndNothingIsWritten() {
+        when(orderRepository.findByIdInAndShopIdForUpdate(any(), eq(SHOP_ID))).thenReturn(List.of());
+
+        List<OrderStatusOutcomeDTO> outcomes = orderService.updateOrderStatuses(SHOP_ID, List.of(10L, 11L),
+                OrderStatus.CANCELLED);
+
+        assertEquals(List.of(OrderStatusOutcomeDTO.notFound(10L), OrderStatusOutcomeDTO.notFound(11L)), outcomes);
+        verify(orderRepository, never()).updateStatusByIdInAndShopId(anyList(), any(), any(), any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any(OrderChangedEvent.class));
+        verify(activityLogService, never()).logActivities(anyList());
+    }
+
+    @Test
+    void cancellationPublishesCancelEventsAndConfirmationSetsEstimate() {
+        when(orderRepository.findByIdInAndShopIdForUpdate(any(), eq(SHOP_ID)))
+                .thenReturn(List.of(order(1, OrderStatus.CONFIRMED)))
+                .thenReturn(List.of(order(2, OrderStatus.PENDING)));
+
+        orderService.updateOrderStatuses(SHOP_ID, List.of(1L), OrderStatus.CANCELLED);
+        List<OrderStatusOutcomeDTO> confirmed = orderService.updateOrderStatuses(SHOP_ID, List.of(2L), OrderStatus.CONFIRMED);
+
+        ArgumentCaptor<OrderChangedEvent> events = ArgumentCaptor.forClass(OrderChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(OrderChangedEvent.Type.ORDER_CANCELLED, events.getAllValues().get(0).type());
+        assertEquals(OrderChangedEvent.Type.STATUS_CHANGED, events.getAllValues().get(1).type());
+        assertNotNull(events.getAllValues().get(1).estimatedDeliveryTime());
+        assertEquals(OrderStatusOutcomeDTO.Result.UPDATED, confirmed.get(0).result());
+        verify(orderRepository).updateStatusByIdInAndShopId(eq(List.of(2L)), eq(SHOP_ID), eq(OrderStatus.CONFIRMED),
+                any(LocalDateTime.class), any(LocalDateTime.class), isNull());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ActivityLog>> logs = ArgumentCaptor.forClass(List.class);
+        verify(activityLogService, times(2)).logActivities(logs.capture());
+        assertEquals("ORDER_CANCELLED", logs.getAllValues().get(0).get(0).getAction());
+        assertEquals("ORDER_STATUS_UPDATED", logs.getAllValues().get(1).get(0).getAction());
+    }
+
+    @Test
+    void singleOrderUpdateFollowsTheSameWorkflow() {
+        Order delivered = order(1, OrderStatus.DELIVERED);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(delivered));
+
+        assertThrows(IllegalStateException.class, () -> orderService.updateOrderStatus(1L, OrderStatus.PENDING));
+        assertThrows(IllegalStateException.class, () -> orderService.cancelOrder(1L));
+        assertSame(delivered, orderService.updateOrderStatus(1L, OrderStatus.DELIVERED));
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(eventPublisher, never()).publishEvent(any(OrderChangedEvent.class));
+    }
+
+    @Test
+    void singleOrderUpdateAppliesAnAllowedStep() {
+        Order preparing = order(1, OrderStatus.PREPARING);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(preparing));
+        when(orderRepository.save(preparing)).thenReturn(preparing);
+
+        Order updated = orderService.updateOrderStatus(1L, OrderStatus.READY_FOR_DELIVERY);
+
+        assertEquals(OrderStatus.READY_FOR_DELIVERY, updated.getStatus());
+        verify(eventPublisher).publishEvent(any(OrderChangedEvent.class));
+    }
+}